@@ -16,11 +16,38 @@
  */
 package org.ec4j.core;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.ec4j.core.Resource.Resources.PathResource;
+import org.ec4j.core.Resource.Stamp;
 import org.ec4j.core.model.EditorConfig;
+import org.ec4j.core.model.Section;
 
 /**
  * A simple cache interface for {@link EditorConfig}s loaded out of {@link Resource}s.
@@ -39,33 +66,838 @@ public interface Cache {
      */
     class Caches {
 
+        /**
+         * A {@link Cache} that keeps at most a configured number of entries (or entries of a configured total weight)
+         * and evicts the least recently used entries when the limit is exceeded. Use {@link #builder()} or
+         * {@link Caches#bounded(long)} to create new instances.
+         * <p>
+         * Instances of this class can be safely accessed from concurrent threads. Note that the loading of
+         * {@code .editorconfig} files happens outside of the lock guarding the entries so that a slow load does not
+         * block the readers of other entries. As a consequence, two threads missing the same entry at the same time
+         * may both load it. Only one of the results is stored. Wrap the instance in {@link Caches#singleFlight(Cache)}
+         * to avoid the duplicate loads.
+         * <p>
+         * The fact that an {@code .editorconfig} file does not exist is cached only if enabled via
+         * {@link Builder#cacheAbsence(boolean)}; such entries count against the limit like any other entries but they
+         * are not reported to the {@link EvictionListener}.
+         */
+        public static class BoundedCache implements Cache {
+
+            /**
+             * A {@link BoundedCache} builder.
+             */
+            public static class Builder {
+                private boolean cacheAbsence;
+                private EvictionListener evictionListener = EvictionListener.NOOP;
+                private long maximumWeight = -1;
+                private Weigher weigher = Weigher.ONE;
+
+                /**
+                 * @return a new {@link BoundedCache}
+                 */
+                public BoundedCache build() {
+                    if (maximumWeight < 0) {
+                        throw new IllegalStateException(
+                                "Call either maximumSize() or maximumWeight() before calling build()");
+                    }
+                    return new BoundedCache(maximumWeight, weigher, evictionListener, cacheAbsence);
+                }
+
+                /**
+                 * Sets whether the resulting {@link BoundedCache} should remember that an {@code .editorconfig} file
+                 * does not exist until the entry is evicted. The default is {@code false}, i.e. to call
+                 * {@link Resource#exists()} on every {@link Cache#getIfExists(Resource, EditorConfigLoader)}.
+                 *
+                 * @param cacheAbsence {@code true} to cache the absence of {@code .editorconfig} files
+                 * @return this {@link Builder}
+                 */
+                public Builder cacheAbsence(boolean cacheAbsence) {
+                    this.cacheAbsence = cacheAbsence;
+                    return this;
+                }
+
+                /**
+                 * Sets the {@link EvictionListener} to notify about evicted entries
+                 *
+                 * @param evictionListener the {@link EvictionListener} to set
+                 * @return this {@link Builder}
+                 */
+                public Builder evictionListener(EvictionListener evictionListener) {
+                    this.evictionListener = evictionListener;
+                    return this;
+                }
+
+                /**
+                 * Sets the maximum number of entries the resulting {@link BoundedCache} should keep.
+                 *
+                 * @param maximumSize the maximum number of entries
+                 * @return this {@link Builder}
+                 */
+                public Builder maximumSize(long maximumSize) {
+                    return maximumWeight(maximumSize, Weigher.ONE);
+                }
+
+                /**
+                 * Sets the maximum total weight of the entries the resulting {@link BoundedCache} should keep.
+                 *
+                 * @param maximumWeight the maximum total weight of the entries
+                 * @param weigher the {@link Weigher} to use for computing the weight of the individual entries
+                 * @return this {@link Builder}
+                 */
+                public Builder maximumWeight(long maximumWeight, Weigher weigher) {
+                    if (maximumWeight < 0) {
+                        throw new IllegalArgumentException("maximumWeight must be >= 0");
+                    }
+                    this.maximumWeight = maximumWeight;
+                    this.weigher = weigher;
+                    return this;
+                }
+            }
+
+            /**
+             * Gets notified when an entry is evicted from a {@link BoundedCache}.
+             */
+            public interface EvictionListener {
+
+                /** An {@link EvictionListener} that does nothing */
+                EvictionListener NOOP = new EvictionListener() {
+                    @Override
+                    public void evicted(Resource editorConfigFile, EditorConfig editorConfig) {
+                    }
+                };
+
+                /**
+                 * The given entry was evicted from a {@link BoundedCache}. This method is not called for entries
+                 * removed via {@link BoundedCache#clear()}.
+                 *
+                 * @param editorConfigFile the key of the evicted entry
+                 * @param editorConfig the value of the evicted entry
+                 */
+                void evicted(Resource editorConfigFile, EditorConfig editorConfig);
+            }
+
+            /**
+             * Computes the weight of {@link BoundedCache} entries.
+             */
+            public interface Weigher {
+
+                /**
+                 * A {@link Weigher} that estimates the memory footprint of an {@link EditorConfig} by counting its
+                 * {@link Section}s and properties.
+                 */
+                Weigher ESTIMATED_SIZE = new Weigher() {
+                    @Override
+                    public int weigh(Resource editorConfigFile, EditorConfig editorConfig) {
+                        int result = 1;
+                        for (Section section : editorConfig.getSections()) {
+                            result += 1 + section.getProperties().size();
+                        }
+                        return result;
+                    }
+                };
+
+                /** A {@link Weigher} that assigns weight {@code 1} to every entry */
+                Weigher ONE = new Weigher() {
+                    @Override
+                    public int weigh(Resource editorConfigFile, EditorConfig editorConfig) {
+                        return 1;
+                    }
+                };
+
+                /**
+                 * @param editorConfigFile the key of the entry to weigh
+                 * @param editorConfig the value of the entry to weigh
+                 * @return the weight of the given entry; must be {@code >= 0} and the same for the same entry every
+                 *         time this method is called
+                 */
+                int weigh(Resource editorConfigFile, EditorConfig editorConfig);
+            }
+
+            /**
+             * @return a new {@link BoundedCache} {@link Builder}
+             */
+            public static Builder builder() {
+                return new Builder();
+            }
+
+            /** Entries in the least recently used first order */
+            private final boolean cacheAbsence;
+            private final LinkedHashMap<Resource, EditorConfig> entries = new LinkedHashMap<>(16, 0.75f, true);
+            private final EvictionListener evictionListener;
+            private final long maximumWeight;
+            private volatile long modificationCount;
+            private final Weigher weigher;
+            private long weight;
+
+            BoundedCache(long maximumWeight, Weigher weigher, EvictionListener evictionListener,
+                    boolean cacheAbsence) {
+                super();
+                this.cacheAbsence = cacheAbsence;
+                this.maximumWeight = maximumWeight;
+                this.weigher = weigher;
+                this.evictionListener = evictionListener;
+            }
+
+            /**
+             * Removes all entries from this {@link Cache}.
+             */
+            public void clear() {
+                synchronized (entries) {
+                    entries.clear();
+                    weight = 0;
+                    modificationCount++;
+                }
+            }
+
+            @Override
+            public EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                return get(editorConfigFile, loader, true);
+            }
+
+            private EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader, boolean mustExist)
+                    throws IOException {
+                synchronized (entries) {
+                    final EditorConfig result = entries.get(editorConfigFile);
+                    if (isUsable(result, mustExist)) {
+                        return result;
+                    }
+                }
+                final EditorConfig loaded = load(editorConfigFile, loader, mustExist);
+                final List<Map.Entry<Resource, EditorConfig>> evicted;
+                synchronized (entries) {
+                    final EditorConfig concurrentlyLoaded = entries.get(editorConfigFile);
+                    if (isUsable(concurrentlyLoaded, mustExist)) {
+                        return concurrentlyLoaded;
+                    }
+                    final EditorConfig old = entries.put(editorConfigFile, loaded);
+                    if (old != null) {
+                        weight -= weigher.weigh(editorConfigFile, old);
+                        modificationCount++;
+                    }
+                    weight += weigher.weigh(editorConfigFile, loaded);
+                    evicted = evictIfNeeded();
+                }
+                for (Map.Entry<Resource, EditorConfig> entry : evicted) {
+                    if (entry.getValue() != ABSENT) {
+                        evictionListener.evicted(entry.getKey(), entry.getValue());
+                    }
+                }
+                return loaded;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public EditorConfig getIfExists(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                if (!cacheAbsence) {
+                    return editorConfigFile.exists() ? get(editorConfigFile, loader) : null;
+                }
+                return nullIfAbsent(get(editorConfigFile, loader, false));
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long getModificationCount() {
+                return modificationCount;
+            }
+
+            /**
+             * Must be called while holding the lock on {@link #entries}.
+             *
+             * @return the evicted entries
+             */
+            private List<Map.Entry<Resource, EditorConfig>> evictIfNeeded() {
+                if (weight <= maximumWeight) {
+                    return Collections.emptyList();
+                }
+                final List<Map.Entry<Resource, EditorConfig>> result = new ArrayList<>();
+                final Iterator<Map.Entry<Resource, EditorConfig>> it = entries.entrySet().iterator();
+                while (weight > maximumWeight && it.hasNext()) {
+                    final Map.Entry<Resource, EditorConfig> eldest = it.next();
+                    weight -= weigher.weigh(eldest.getKey(), eldest.getValue());
+                    result.add(new AbstractMap.SimpleImmutableEntry<>(eldest));
+                    it.remove();
+                }
+                return result;
+            }
+
+        }
+
+        /**
+         * A {@link ConcurrentHashMap} based {@link Cache} whose entries are kept forever unless {@link #clear()} is
+         * called.
+         * <p>
+         * Instances of this class can be safely accessed from concurrent threads. Each {@code .editorconfig} file is
+         * loaded at most once: if several threads miss the same entry at the same time, only one of them loads it and
+         * the others wait for the result. The loading happens outside of the underlying {@link ConcurrentHashMap} so
+         * that a slow load does not block the access to other entries. Reading an entry that was loaded already does
+         * not lock.
+         * <p>
+         * The fact that an {@code .editorconfig} file does not exist is cached only if {@code cacheAbsence} was set
+         * to {@code true} in {@link Caches#concurrent(boolean)}. Note that such a negative entry is kept forever too,
+         * so an {@code .editorconfig} file created later is not seen by
+         * {@link #getIfExists(Resource, EditorConfigLoader)} until {@link #clear()} is called.
+         */
+        public static class ConcurrentCache implements Cache {
+            private final boolean cacheAbsence;
+            private final ConcurrentMap<Resource, EditorConfig> entries = new ConcurrentHashMap<>();
+            /** The loads in progress */
+            private final ConcurrentMap<Resource, FutureTask<EditorConfig>> inFlight = new ConcurrentHashMap<>();
+            private final AtomicLong modificationCount = new AtomicLong();
+
+            ConcurrentCache(boolean cacheAbsence) {
+                super();
+                this.cacheAbsence = cacheAbsence;
+            }
+
+            /**
+             * Removes all entries from this {@link Cache}.
+             */
+            public void clear() {
+                entries.clear();
+                modificationCount.incrementAndGet();
+            }
+
+            @Override
+            public EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                EditorConfig result = get(editorConfigFile, loader, true);
+                if (result == ABSENT) {
+                    /* The file did not exist when it was seen last time, but the caller says it exists now */
+                    result = load(editorConfigFile, loader, true);
+                    if (entries.replace(editorConfigFile, ABSENT, result)) {
+                        modificationCount.incrementAndGet();
+                    }
+                }
+                return result;
+            }
+
+            private EditorConfig get(final Resource editorConfigFile, final EditorConfigLoader loader,
+                    final boolean mustExist) throws IOException {
+                final EditorConfig result = entries.get(editorConfigFile);
+                if (result != null) {
+                    return result;
+                }
+                /* Load outside of entries so that a slow load does not block the other entries of the same bin */
+                return SingleFlightCache.call(inFlight, editorConfigFile, new Callable<EditorConfig>() {
+                    @Override
+                    public EditorConfig call() throws IOException {
+                        final EditorConfig concurrentlyLoaded = entries.get(editorConfigFile);
+                        if (concurrentlyLoaded != null) {
+                            return concurrentlyLoaded;
+                        }
+                        final EditorConfig loaded = load(editorConfigFile, loader, mustExist);
+                        final EditorConfig old = entries.putIfAbsent(editorConfigFile, loaded);
+                        return old != null ? old : loaded;
+                    }
+                });
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public EditorConfig getIfExists(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                if (!cacheAbsence) {
+                    return editorConfigFile.exists() ? get(editorConfigFile, loader) : null;
+                }
+                return nullIfAbsent(get(editorConfigFile, loader, false));
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long getModificationCount() {
+                return modificationCount.get();
+            }
+
+        }
+
         /**
          * A simple {@link HashMap} based {@link Cache} whose entries are kept forver unless {@link #clear()} is called.
          * <p>
+         * The fact that an {@code .editorconfig} file does not exist is cached only if {@code cacheAbsence} was set
+         * to {@code true} in {@link Caches#permanent(boolean)}. Note that such a negative entry is kept forever too,
+         * so an {@code .editorconfig} file created later is not seen by
+         * {@link #getIfExists(Resource, EditorConfigLoader)} until {@link #clear()} is called.
+         * <p>
          * Instances of this class cannot be acceseed from concurrent threads safely.
          */
         public static class PermanentCache implements Cache {
+            private final boolean cacheAbsence;
             private final Map<Resource, EditorConfig> entries = new HashMap<>();
+            private long modificationCount;
+
+            PermanentCache(boolean cacheAbsence) {
+                super();
+                this.cacheAbsence = cacheAbsence;
+            }
 
             /**
              * Removes all entries from this {@link Cache}.
              */
             public void clear() {
                 entries.clear();
+                modificationCount++;
             }
 
             @Override
             public EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                return get(editorConfigFile, loader, true);
+            }
+
+            private EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader, boolean mustExist)
+                    throws IOException {
                 EditorConfig result = entries.get(editorConfigFile);
+                if (!isUsable(result, mustExist)) {
+                    if (result != null) {
+                        modificationCount++;
+                    }
+                    result = load(editorConfigFile, loader, mustExist);
+                    entries.put(editorConfigFile, result);
+                }
+                return result;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public EditorConfig getIfExists(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                if (!cacheAbsence) {
+                    return editorConfigFile.exists() ? get(editorConfigFile, loader) : null;
+                }
+                return nullIfAbsent(get(editorConfigFile, loader, false));
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long getModificationCount() {
+                return modificationCount;
+            }
+
+        }
+
+        /**
+         * A {@link Cache} decorator that makes sure that concurrent misses of the same {@code .editorconfig} file in
+         * the underlying {@link Cache} cause only a single load: the first thread calls the underlying {@link Cache}
+         * and the other threads asking for the same file in the meantime wait for its result. Use
+         * {@link Caches#singleFlight(Cache)} to create new instances.
+         * <p>
+         * Instances of this class can be safely accessed from concurrent threads as long as the underlying
+         * {@link Cache} can be.
+         */
+        public static class SingleFlightCache implements Cache {
+
+            /**
+             * Runs the given {@code call} unless there is already one running for the given {@code editorConfigFile}
+             * in which case the result of the running one is awaited.
+             *
+             * @param inFlight the calls in progress
+             * @param editorConfigFile the file to get the {@link EditorConfig} for
+             * @param call the call to the underlying {@link Cache}
+             * @return the result of the {@code call}
+             * @throws IOException thrown by the {@code call} or if the current thread gets interrupted while waiting
+             */
+            private static EditorConfig call(ConcurrentMap<Resource, FutureTask<EditorConfig>> inFlight,
+                    Resource editorConfigFile, Callable<EditorConfig> call) throws IOException {
+                final FutureTask<EditorConfig> task = new FutureTask<>(call);
+                FutureTask<EditorConfig> result = inFlight.putIfAbsent(editorConfigFile, task);
                 if (result == null) {
-                    result = loader.load(editorConfigFile);
+                    result = task;
+                    try {
+                        task.run();
+                    } finally {
+                        inFlight.remove(editorConfigFile, task);
+                    }
+                }
+                try {
+                    return result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for " + editorConfigFile);
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw new IOException(cause);
+                    }
+                }
+            }
+
+            private final Cache delegate;
+            private final ConcurrentMap<Resource, FutureTask<EditorConfig>> inFlightGets = new ConcurrentHashMap<>();
+            private final ConcurrentMap<Resource, FutureTask<EditorConfig>> inFlightGetIfExists = //
+                    new ConcurrentHashMap<>();
+
+            SingleFlightCache(Cache delegate) {
+                super();
+                this.delegate = delegate;
+            }
+
+            @Override
+            public EditorConfig get(final Resource editorConfigFile, final EditorConfigLoader loader)
+                    throws IOException {
+                return call(inFlightGets, editorConfigFile, new Callable<EditorConfig>() {
+                    @Override
+                    public EditorConfig call() throws IOException {
+                        return delegate.get(editorConfigFile, loader);
+                    }
+                });
+            }
+
+            /**
+             * @return the underlying {@link Cache}
+             */
+            public Cache getDelegate() {
+                return delegate;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public EditorConfig getIfExists(final Resource editorConfigFile, final EditorConfigLoader loader)
+                    throws IOException {
+                return call(inFlightGetIfExists, editorConfigFile, new Callable<EditorConfig>() {
+                    @Override
+                    public EditorConfig call() throws IOException {
+                        return delegate.getIfExists(editorConfigFile, loader);
+                    }
+                });
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long getModificationCount() {
+                return delegate.getModificationCount();
+            }
+
+        }
+
+        /**
+         * A {@link Cache} that stores the {@link Stamp} of the underlying {@code .editorconfig} file along with each
+         * entry and reloads the entry when the {@link Stamp} changes. To avoid checking the file on every lookup, the
+         * {@link Stamp} of an entry is checked only if at least {@code checkInterval} elapsed since the last check. Use
+         * {@link Caches#validating(long, TimeUnit)} to create new instances. Note that a {@code checkInterval} of zero
+         * makes every lookup call {@link Resource#getStamp()}, i.e. access the file system.
+         * <p>
+         * Entries whose {@link Resource#getStamp()} returns {@code null} are never reloaded.
+         * <p>
+         * The fact that an {@code .editorconfig} file does not exist is cached too and it is re-checked in the same
+         * intervals as the existing files.
+         * <p>
+         * Instances of this class can be safely accessed from concurrent threads. Two threads missing the same entry
+         * at the same time may both load it unless the instance is wrapped in {@link Caches#singleFlight(Cache)}.
+         */
+        public static class ValidatingCache implements Cache {
+
+            /**
+             * An {@link EditorConfig} along with the {@link Stamp} of the file it was loaded from.
+             */
+            private static class Entry {
+                private final EditorConfig editorConfig;
+                private volatile long lastChecked;
+                private final Stamp stamp;
+
+                private Entry(EditorConfig editorConfig, Stamp stamp, long lastChecked) {
+                    super();
+                    this.editorConfig = editorConfig;
+                    this.stamp = stamp;
+                    this.lastChecked = lastChecked;
+                }
+            }
+
+            private final long checkIntervalNanos;
+            private final ConcurrentMap<Resource, Entry> entries = new ConcurrentHashMap<>();
+            private final AtomicLong modificationCount = new AtomicLong();
+
+            ValidatingCache(long checkInterval, TimeUnit unit) {
+                super();
+                this.checkIntervalNanos = unit.toNanos(checkInterval);
+            }
+
+            /**
+             * Removes all entries from this {@link Cache}.
+             */
+            public void clear() {
+                entries.clear();
+                modificationCount.incrementAndGet();
+            }
+
+            @Override
+            public EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                return get(editorConfigFile, loader, true);
+            }
+
+            private EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader, boolean mustExist)
+                    throws IOException {
+                final long now = System.nanoTime();
+                final Entry entry = entries.get(editorConfigFile);
+                Stamp stamp = null;
+                if (entry != null && isUsable(entry.editorConfig, mustExist)) {
+                    if (now - entry.lastChecked < checkIntervalNanos) {
+                        return entry.editorConfig;
+                    }
+                    stamp = editorConfigFile.getStamp();
+                    if (stamp == null || stamp.equals(entry.stamp)) {
+                        entry.lastChecked = now;
+                        return entry.editorConfig;
+                    }
+                } else {
+                    /* Take the stamp before loading so that changes made during the loading get noticed next time */
+                    stamp = editorConfigFile.getStamp();
+                }
+                final EditorConfig result;
+                if (stamp == null) {
+                    result = load(editorConfigFile, loader, mustExist);
+                } else if (!mustExist && !stamp.isPresent()) {
+                    result = ABSENT;
+                } else {
+                    result = load(editorConfigFile, loader, true);
+                }
+                final Entry old = entries.put(editorConfigFile, new Entry(result, stamp, now));
+                if (old != null && old.editorConfig != result) {
+                    modificationCount.incrementAndGet();
+                }
+                return result;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public EditorConfig getIfExists(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                return nullIfAbsent(get(editorConfigFile, loader, false));
+            }
+
+            /**
+             * {@inheritDoc}
+             * <p>
+             * This method does not access the file system: a stale entry is noticed, and the returned value changes,
+             * only when the entry is looked up after the check interval elapsed.
+             */
+            @Override
+            public long getModificationCount() {
+                return modificationCount.get();
+            }
+
+        }
+
+        /**
+         * A {@link Cache} that registers the directories containing the cached {@code .editorconfig} files with a
+         * {@link WatchService} and evicts the entries for which the {@link WatchService} reports a change. Once an
+         * entry is loaded, it is served without any file system access until it is changed or deleted. The fact that
+         * an {@code .editorconfig} file does not exist is cached too and the creation of such a file evicts the
+         * negative entry. Use
+         * {@link Caches#watching()} or {@link Caches#watching(FileSystem)} to create new instances.
+         * <p>
+         * Note that a directory is registered for every looked up {@code .editorconfig} file, including the ancestors
+         * of the queried files where no {@code .editorconfig} file exists. If a directory cannot be registered, e.g.
+         * because the operating system limit of watched directories was reached, neither the {@code .editorconfig}
+         * file in it nor its absence is cached.
+         * <p>
+         * Only {@link Resource}s created via {@link Resource.Resources#ofPath(Path, java.nio.charset.Charset)} can be
+         * watched; entries for other kinds of {@link Resource}s are kept forever unless {@link #clear()} is called.
+         * <p>
+         * Each instance runs a daemon thread that waits for the file system events. Call {@link #close()} to stop the
+         * thread and to release the underlying {@link WatchService}.
+         * <p>
+         * Instances of this class can be safely accessed from concurrent threads. Two threads missing the same entry
+         * at the same time may both load it unless the instance is wrapped in {@link Caches#singleFlight(Cache)}.
+         */
+        public static class WatchingCache implements Cache, Closeable {
+
+            private final ConcurrentMap<Resource, EditorConfig> entries = new ConcurrentHashMap<>();
+            /**
+             * Incremented on every file system event that may concern a cached file so that loads racing with such an
+             * event can be detected
+             */
+            private final AtomicLong eventCount = new AtomicLong();
+            /** The file names of the cached {@code .editorconfig} files, typically just {@code .editorconfig} */
+            private final Set<Path> fileNames = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+            private final AtomicLong modificationCount = new AtomicLong();
+            private final ConcurrentMap<Path, WatchKey> watchedDirectories = new ConcurrentHashMap<>();
+            private final WatchService watchService;
+            private final Thread watcher;
+
+            WatchingCache(FileSystem fileSystem) throws IOException {
+                super();
+                this.watchService = fileSystem.newWatchService();
+                this.watcher = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        watch();
+                    }
+                }, WatchingCache.class.getSimpleName());
+                this.watcher.setDaemon(true);
+                this.watcher.start();
+            }
+
+            /**
+             * @param resource the {@link Resource} to transform
+             * @return a {@link PathResource} with an absolute path if the given {@link Resource} is a
+             *         {@link PathResource}; otherwise the given {@link Resource}
+             */
+            private static Resource absolute(Resource resource) {
+                if (resource instanceof PathResource) {
+                    final PathResource pathResource = (PathResource) resource;
+                    if (!pathResource.path.isAbsolute()) {
+                        return new PathResource(pathResource.path.toAbsolutePath(), pathResource.encoding,
+                                pathResource.mapped);
+                    }
+                }
+                return resource;
+            }
+
+            /**
+             * Removes all entries from this {@link Cache}. The directories registered so far stay registered with the
+             * underlying {@link WatchService}.
+             */
+            public void clear() {
+                entries.clear();
+                modificationCount.incrementAndGet();
+            }
+
+            /**
+             * Stops watching the file system and releases the underlying {@link WatchService}. The entries loaded so
+             * far are not evicted anymore after this {@link WatchingCache} was closed.
+             *
+             * @throws IOException on problems closing the underlying {@link WatchService}
+             */
+            @Override
+            public void close() throws IOException {
+                watchService.close();
+                watcher.interrupt();
+            }
+
+            /**
+             * Removes the entries of all {@code .editorconfig} files located in the given {@code directory}.
+             *
+             * @param directory the directory whose entries should be removed
+             * @return {@code true} if any entry was removed; {@code false} otherwise
+             */
+            private boolean evictDirectory(Path directory) {
+                boolean result = false;
+                final Iterator<Resource> it = entries.keySet().iterator();
+                while (it.hasNext()) {
+                    final Resource resource = it.next();
+                    if (resource instanceof PathResource
+                            && directory.equals(((PathResource) resource).path.getParent())) {
+                        it.remove();
+                        result = true;
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                return get(editorConfigFile, loader, true);
+            }
+
+            private EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader, boolean mustExist)
+                    throws IOException {
+                editorConfigFile = absolute(editorConfigFile);
+                EditorConfig result = entries.get(editorConfigFile);
+                if (!isUsable(result, mustExist)) {
+                    if (editorConfigFile instanceof PathResource) {
+                        fileNames.add(((PathResource) editorConfigFile).path.getFileName());
+                    }
+                    final long eventCountBefore = eventCount.get();
+                    /* Register before loading so that no change can be missed */
+                    if (!watch(editorConfigFile)) {
+                        /* No way to get notified about changes, so do not cache, neither the absence */
+                        return load(editorConfigFile, loader, mustExist);
+                    }
+                    result = load(editorConfigFile, loader, mustExist);
                     entries.put(editorConfigFile, result);
+                    if (eventCount.get() != eventCountBefore) {
+                        /* Some event came in the meantime; it may have been about our file */
+                        entries.remove(editorConfigFile, result);
+                    }
                 }
                 return result;
             }
 
+            /** {@inheritDoc} */
+            @Override
+            public EditorConfig getIfExists(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+                return nullIfAbsent(get(editorConfigFile, loader, false));
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long getModificationCount() {
+                return modificationCount.get();
+            }
+
+            /**
+             * Processes the file system events until the {@link #watchService} is closed.
+             */
+            private void watch() {
+                try {
+                    while (true) {
+                        final WatchKey key = watchService.take();
+                        final Path dir = (Path) key.watchable();
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                                /* Some events were lost, any of them may have concerned a cached file */
+                                eventCount.incrementAndGet();
+                                if (evictDirectory(dir)) {
+                                    modificationCount.incrementAndGet();
+                                }
+                            } else {
+                                final Path fileName = (Path) event.context();
+                                if (fileNames.contains(fileName)) {
+                                    eventCount.incrementAndGet();
+                                    if (entries.remove(new PathResource(dir.resolve(fileName), null)) != null) {
+                                        modificationCount.incrementAndGet();
+                                    }
+                                }
+                            }
+                        }
+                        if (!key.reset()) {
+                            /* The directory is not accessible anymore */
+                            eventCount.incrementAndGet();
+                            watchedDirectories.remove(dir, key);
+                            if (evictDirectory(dir)) {
+                                modificationCount.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    /* closed */
+                }
+            }
+
+            /**
+             * Registers the parent directory of the given {@link Resource} with {@link #watchService} unless it is
+             * registered already.
+             *
+             * @param resource the {@link Resource} whose parent directory should be watched
+             * @return {@code false} if the given {@link Resource} is a {@link PathResource} whose parent directory
+             *         cannot be registered, e.g. because it does not exist or because the operating system limit of
+             *         watched directories was reached; {@code true} otherwise
+             */
+            private boolean watch(Resource resource) {
+                if (resource instanceof PathResource) {
+                    final Path dir = ((PathResource) resource).path.getParent();
+                    if (dir != null && !watchedDirectories.containsKey(dir)) {
+                        try {
+                            final WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                            watchedDirectories.put(dir, key);
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+
         }
 
+        /**
+         * A marker stored in place of {@link EditorConfig}s of {@code .editorconfig} files that do not exist. Compared
+         * by identity.
+         */
+        static final EditorConfig ABSENT = EditorConfig.builder().build();
+
         /** {@link #NO_CACHE} keeps no state, we can thus have a singleton */
         private static final Cache NO_CACHE = new Cache() {
             @Override
@@ -87,10 +919,118 @@ public interface Cache {
         }
 
         /**
-         * @return a new {@link PermanentCache}
+         * @param maximumSize the maximum number of entries the resulting {@link Cache} should keep
+         * @return a new {@link BoundedCache} that keeps at most {@code maximumSize} entries
+         */
+        public static Cache bounded(long maximumSize) {
+            return BoundedCache.builder().maximumSize(maximumSize).build();
+        }
+
+        /**
+         * @return a new {@link ConcurrentCache} that does not cache the fact that an {@code .editorconfig} file does
+         *         not exist
+         */
+        public static Cache concurrent() {
+            return concurrent(false);
+        }
+
+        /**
+         * @param cacheAbsence if {@code true} the resulting {@link Cache} remembers forever that an
+         *        {@code .editorconfig} file does not exist, saving the {@link Resource#exists()} calls; otherwise
+         *        {@link Resource#exists()} is called on every {@link Cache#getIfExists(Resource, EditorConfigLoader)}
+         * @return a new {@link ConcurrentCache}
+         * @since 0.2.2
+         */
+        public static Cache concurrent(boolean cacheAbsence) {
+            return new ConcurrentCache(cacheAbsence);
+        }
+
+        /**
+         * @return a new {@link PermanentCache} that does not cache the fact that an {@code .editorconfig} file does
+         *         not exist
          */
         public static Cache permanent() {
-            return new PermanentCache();
+            return permanent(false);
+        }
+
+        /**
+         * @param cacheAbsence if {@code true} the resulting {@link Cache} remembers forever that an
+         *        {@code .editorconfig} file does not exist, saving the {@link Resource#exists()} calls; otherwise
+         *        {@link Resource#exists()} is called on every {@link Cache#getIfExists(Resource, EditorConfigLoader)}
+         * @return a new {@link PermanentCache}
+         * @since 0.2.2
+         */
+        public static Cache permanent(boolean cacheAbsence) {
+            return new PermanentCache(cacheAbsence);
+        }
+
+        /**
+         * @param delegate the {@link Cache} to decorate
+         * @return a new {@link SingleFlightCache} decorating the given {@code delegate}
+         */
+        public static Cache singleFlight(Cache delegate) {
+            return new SingleFlightCache(delegate);
+        }
+
+        /**
+         * @param checkInterval the minimal time between two checks of the {@link Stamp} of a cached
+         *        {@code .editorconfig} file
+         * @param unit the {@link TimeUnit} of {@code checkInterval}
+         * @return a new {@link ValidatingCache}
+         */
+        public static Cache validating(long checkInterval, TimeUnit unit) {
+            return new ValidatingCache(checkInterval, unit);
+        }
+
+        /**
+         * @return a new {@link WatchingCache} watching the {@link FileSystems#getDefault() default file system}
+         * @throws IOException if the {@link WatchService} cannot be created
+         */
+        public static WatchingCache watching() throws IOException {
+            return watching(FileSystems.getDefault());
+        }
+
+        /**
+         * @param fileSystem the {@link FileSystem} to watch
+         * @return a new {@link WatchingCache} watching the given {@code fileSystem}
+         * @throws IOException if the {@link WatchService} cannot be created
+         */
+        public static WatchingCache watching(FileSystem fileSystem) throws IOException {
+            return new WatchingCache(fileSystem);
+        }
+
+        /**
+         * @param editorConfigFile the file to load
+         * @param loader the {@link EditorConfigLoader} to load with
+         * @param mustExist if {@code true} the caller knows that the file exists and {@link Resource#exists()} does
+         *        not need to be called
+         * @return the loaded {@link EditorConfig} or {@link #ABSENT} if the file does not exist
+         * @throws IOException on I/O problems during the loading
+         */
+        static EditorConfig load(Resource editorConfigFile, EditorConfigLoader loader, boolean mustExist)
+                throws IOException {
+            if (!mustExist && !editorConfigFile.exists()) {
+                return ABSENT;
+            }
+            return loader.load(editorConfigFile);
+        }
+
+        /**
+         * @param editorConfig the value to check
+         * @param mustExist see {@link #load(Resource, EditorConfigLoader, boolean)}
+         * @return {@code true} if the given cached {@code editorConfig} can be returned as is
+         */
+        static boolean isUsable(EditorConfig editorConfig, boolean mustExist) {
+            return editorConfig != null && !(mustExist && editorConfig == ABSENT);
+        }
+
+        /**
+         * @param editorConfig the value to transform
+         * @return {@code null} if the given {@code editorConfig} is {@link #ABSENT}; otherwise the given
+         *         {@code editorConfig}
+         */
+        static EditorConfig nullIfAbsent(EditorConfig editorConfig) {
+            return editorConfig == ABSENT ? null : editorConfig;
         }
 
         private Caches() {
@@ -98,5 +1038,49 @@ public interface Cache {
 
     }
 
+    /**
+     * Returns the {@link EditorConfig} loaded out of the given {@code editorConfigFile}. The caller is responsible for
+     * checking that the given {@code editorConfigFile} exists.
+     *
+     * @param editorConfigFile the {@code .editorconfig} file to get the {@link EditorConfig} for
+     * @param loader the {@link EditorConfigLoader} to use if the {@link EditorConfig} needs to be loaded
+     * @return the {@link EditorConfig} loaded out of the given {@code editorConfigFile}
+     * @throws IOException on I/O problems during the loading of the given {@code editorConfigFile}
+     */
     EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader) throws IOException;
+
+    /**
+     * Returns the {@link EditorConfig} loaded out of the given {@code editorConfigFile} or {@code null} if the given
+     * {@code editorConfigFile} does not exist. The implementations are free to cache the fact that a given
+     * {@code editorConfigFile} does not exist, subject to the same invalidation rules they apply to the existing
+     * files.
+     * <p>
+     * This default implementation calls {@link Resource#exists()} and {@link #get(Resource, EditorConfigLoader)}.
+     *
+     * @param editorConfigFile the {@code .editorconfig} file to get the {@link EditorConfig} for
+     * @param loader the {@link EditorConfigLoader} to use if the {@link EditorConfig} needs to be loaded
+     * @return the {@link EditorConfig} loaded out of the given {@code editorConfigFile} or {@code null} if the given
+     *         {@code editorConfigFile} does not exist
+     * @throws IOException on I/O problems during the loading of the given {@code editorConfigFile}
+     * @since 0.2.2
+     */
+    default EditorConfig getIfExists(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+        return editorConfigFile.exists() ? get(editorConfigFile, loader) : null;
+    }
+
+    /**
+     * Returns a number that changes whenever some entry returned by this {@link Cache} in the past may have become
+     * stale, e.g. because it was reloaded or removed via {@code clear()}. Adding new entries and evicting entries just
+     * to save memory do not need to change the returned value. Callers can use this method to find out cheaply
+     * whether data derived from the entries of this {@link Cache} are still up to date.
+     * <p>
+     * This default implementation returns {@code -1} meaning that this {@link Cache} does not track its
+     * modifications.
+     *
+     * @return a non-negative modification count or {@code -1} if this {@link Cache} does not track its modifications
+     * @since 0.2.2
+     */
+    default long getModificationCount() {
+        return -1;
+    }
 }
\ No newline at end of file
@@ -17,6 +17,9 @@
 package org.ec4j.core;
 
 import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
 
 import org.ec4j.core.model.EditorConfig;
 import org.ec4j.core.model.Version;
@@ -26,18 +29,41 @@ import org.ec4j.core.parser.ErrorHandler;
 
 /**
  * Implements the capability of loading an {@link EditorConfig} object out of a {@link Resource}.
+ * <p>
+ * The instances created via the factory methods of this class and via
+ * {@link #EditorConfigLoader(Supplier, ErrorHandler)} can be safely accessed from concurrent threads: each
+ * {@link #load(Resource)} call borrows an {@link EditorConfigParser} and an {@link EditorConfigModelHandler} from a
+ * bounded pool and creates new ones if the pool is empty. The instances created via
+ * {@link #EditorConfigLoader(EditorConfigModelHandler, ErrorHandler)} share the single given handler and therefore
+ * serialize the concurrent {@link #load(Resource)} calls.
  *
  * @author <a href="https://github.com/ppalaga">Peter Palaga</a>
  */
 public class EditorConfigLoader {
 
+    /**
+     * A parser and a handler that can be used by one thread at a time.
+     */
+    private static class Worker {
+        private final EditorConfigModelHandler handler;
+        private final EditorConfigParser parser;
+
+        private Worker(EditorConfigModelHandler handler, EditorConfigParser parser) {
+            super();
+            this.handler = handler;
+            this.parser = parser;
+        }
+    }
+
+    /** The maximal number of idle {@link Worker}s kept by a pooling {@link EditorConfigLoader} */
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
     /**
      * @return a new {@link EditorConfigLoader} with {@link PropertyTypeRegistry#default_()}, {@link Version#CURRENT}
      *         and {@link ErrorHandler#THROW_SYNTAX_ERRORS_IGNORE_OTHERS}
      */
     public static EditorConfigLoader default_() {
-        return new EditorConfigLoader(new EditorConfigModelHandler(PropertyTypeRegistry.default_(), Version.CURRENT),
-                ErrorHandler.THROW_SYNTAX_ERRORS_IGNORE_OTHERS);
+        return of(Version.CURRENT);
     }
 
     public static EditorConfigLoader of(Version version) {
@@ -48,19 +74,77 @@ public class EditorConfigLoader {
         return of(version, registry, ErrorHandler.THROW_SYNTAX_ERRORS_IGNORE_OTHERS);
     }
 
-    public static EditorConfigLoader of(Version version, PropertyTypeRegistry registry, ErrorHandler errorHandler) {
-        return new EditorConfigLoader(new EditorConfigModelHandler(registry, version), errorHandler);
+    public static EditorConfigLoader of(final Version version, final PropertyTypeRegistry registry,
+            ErrorHandler errorHandler) {
+        return new EditorConfigLoader(new Supplier<EditorConfigModelHandler>() {
+            @Override
+            public EditorConfigModelHandler get() {
+                return new EditorConfigModelHandler(registry, version);
+            }
+        }, errorHandler);
     }
 
     private final ErrorHandler errorHandler;
 
-    private final EditorConfigModelHandler handler;
-    private final EditorConfigParser parser;
+    private final Supplier<? extends EditorConfigModelHandler> handlerFactory;
+    private final Supplier<? extends EditorConfigParser> parserFactory;
+    private final BlockingQueue<Worker> pool;
+    private final Worker sharedWorker;
 
+    /**
+     * Creates a new {@link EditorConfigLoader} using the given single {@code handler}. Concurrent
+     * {@link #load(Resource)} calls on the resulting instance are serialized. Use
+     * {@link #EditorConfigLoader(Supplier, ErrorHandler)} to get an instance able to load concurrently.
+     *
+     * @param handler the {@link EditorConfigModelHandler} to use
+     * @param errorHandler the {@link ErrorHandler} to use
+     */
     public EditorConfigLoader(EditorConfigModelHandler handler, ErrorHandler errorHandler) {
         super();
-        this.parser = EditorConfigParser.default_();
-        this.handler = handler;
+        this.sharedWorker = new Worker(handler, EditorConfigParser.default_());
+        this.handlerFactory = null;
+        this.parserFactory = null;
+        this.pool = null;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Creates a new {@link EditorConfigLoader} that can be safely accessed from concurrent threads. The
+     * {@code handlerFactory} is called whenever a new {@link EditorConfigModelHandler} is needed for a concurrent
+     * {@link #load(Resource)} call; the handlers are reused afterwards.
+     *
+     * @param handlerFactory creates new {@link EditorConfigModelHandler}s
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @since 0.2.2
+     */
+    public EditorConfigLoader(Supplier<? extends EditorConfigModelHandler> handlerFactory, ErrorHandler errorHandler) {
+        this(handlerFactory, new Supplier<EditorConfigParser>() {
+            @Override
+            public EditorConfigParser get() {
+                return EditorConfigParser.default_();
+            }
+        }, errorHandler);
+    }
+
+    /**
+     * Creates a new {@link EditorConfigLoader} that can be safely accessed from concurrent threads. The
+     * {@code handlerFactory} and the {@code parserFactory} are called whenever a new {@link EditorConfigModelHandler}
+     * and {@link EditorConfigParser} are needed for a concurrent {@link #load(Resource)} call; they are reused
+     * afterwards. Use the {@code parserFactory} e.g. to enable
+     * {@link EditorConfigParser.Builder#parseUtf8Bytes(boolean)}.
+     *
+     * @param handlerFactory creates new {@link EditorConfigModelHandler}s
+     * @param parserFactory creates new {@link EditorConfigParser}s
+     * @param errorHandler the {@link ErrorHandler} to use
+     * @since 0.2.2
+     */
+    public EditorConfigLoader(Supplier<? extends EditorConfigModelHandler> handlerFactory,
+            Supplier<? extends EditorConfigParser> parserFactory, ErrorHandler errorHandler) {
+        super();
+        this.sharedWorker = null;
+        this.handlerFactory = handlerFactory;
+        this.parserFactory = parserFactory;
+        this.pool = new ArrayBlockingQueue<>(POOL_SIZE);
         this.errorHandler = errorHandler;
     }
 
@@ -74,12 +158,31 @@ public class EditorConfigLoader {
      *         on I/O problems during the reading from the given {@link Resource}
      */
     public EditorConfig load(Resource configFile) throws IOException {
+        if (sharedWorker != null) {
+            synchronized (sharedWorker) {
+                return load(sharedWorker, configFile);
+            }
+        }
+        Worker worker = pool.poll();
+        if (worker == null) {
+            worker = new Worker(handlerFactory.get(), parserFactory.get());
+        }
+        final EditorConfig result = load(worker, configFile);
+        /*
+         * Dropped if the pool is full. The worker is not reused after a failure because the parser and the handler may
+         * be left in an inconsistent state
+         */
+        pool.offer(worker);
+        return result;
+    }
+
+    private EditorConfig load(Worker worker, Resource configFile) throws IOException {
         try {
-            parser.parse(configFile, handler, errorHandler);
-            EditorConfig result = handler.getEditorConfig();
+            worker.parser.parse(configFile, worker.handler, errorHandler);
+            EditorConfig result = worker.handler.getEditorConfig();
             return result;
         } catch (IOException e) {
             throw new IOException("Could not load " + configFile.getPath(), e);
         }
     }
-}
\ No newline at end of file
+}
@@ -25,16 +25,24 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.ec4j.core.Resource.Resources.StringResourceTree.Builder;
 import org.ec4j.core.ResourcePath.ResourcePaths.ClassPathResourcePath;
@@ -136,27 +144,45 @@ public interface Resource {
          * @since 0.0.4
          */
         public static String skipBom(byte[] bytes, Charset charset) {
+            if (charset instanceof BomCharset) {
+                final ByteBuffer buffer = skipBom(ByteBuffer.wrap(bytes), charset);
+                return new String(bytes, buffer.position(), buffer.remaining(), charset);
+            } else {
+                return new String(bytes, charset);
+            }
+        }
+
+        /**
+         * If the given {@code charset} is a {@link BomCharset}, skips the BOM sequence in the given {@code bytes} by
+         * advancing their position; otherwise leaves the {@code bytes} untouched.
+         *
+         * @param bytes the {@link ByteBuffer} to process
+         * @param charset the encoding of the {@code bytes}
+         * @return {@code bytes}
+         * @since 0.2.2
+         */
+        public static ByteBuffer skipBom(ByteBuffer bytes, Charset charset) {
             if (charset instanceof BomCharset) {
                 final Bom bom = ((BomCharset) charset).getBom();
                 final int bomLength = bom.bomBytes.length;
-                if (bytes.length == 0) {
+                final int start = bytes.position();
+                if (!bytes.hasRemaining()) {
                     /* Handle zero length files as valid */
-                    return "";
-                } else if (bomLength > bytes.length) {
+                    return bytes;
+                } else if (bomLength > bytes.remaining()) {
                     throw new IllegalStateException("Input too short; expected to start with Byte Order Mark (BOM)");
                 }
                 for (int i = 0; i < bomLength; i++) {
-                    byte c = bytes[i];
+                    byte c = bytes.get(start + i);
                     if (c != bom.bomBytes[i]) {
                         throw new IllegalStateException(String.format(
                                 "Input expected to start with Byte Order Mark (BOM) [%s], found [0x%02X] at offset [%d]",
                                 bom.bomBytesHumanReadable(), c, i));
                     }
                 }
-                return new String(bytes, bomLength, bytes.length - bomLength, charset);
-            } else {
-                return new String(bytes, charset);
+                bytes.position(start + bomLength);
             }
+            return bytes;
         }
 
         /**
@@ -321,6 +347,44 @@ public interface Resource {
      */
     class Resources {
 
+        /**
+         * A {@link RandomReader} that reads from a {@link ByteBuffer} holding ASCII content, such as a memory mapped
+         * file, without copying it to the heap.
+         */
+        static class AsciiBufferRandomReader implements RandomReader {
+
+            /** The content between its position and its limit */
+            private final ByteBuffer content;
+            private final int start;
+
+            AsciiBufferRandomReader(ByteBuffer content) {
+                super();
+                this.content = content;
+                this.start = content.position();
+            }
+
+            @Override
+            public void close() {
+                /* nothing to do */
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public long getLength() {
+                return content.limit() - start;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public char read(long offset) {
+                if (offset < 0 || offset >= getLength()) {
+                    throw new IndexOutOfBoundsException(
+                            "Cannot access index " + offset + " in a buffer of length " + getLength());
+                }
+                return (char) content.get(start + (int) offset);
+            }
+        }
+
         /**
          * A {@link Resource} implementation that loads resources from the current class path via the given
          * {@link ClassLoader}.
@@ -425,12 +489,32 @@ public interface Resource {
         static class PathResource implements Resource {
 
             final Charset encoding;
+            /** If {@code true} the file is read via {@link FileChannel#map(MapMode, long, long)} */
+            final boolean mapped;
             final Path path;
 
             PathResource(Path path, Charset encoding) {
+                this(path, encoding, false);
+            }
+
+            PathResource(Path path, Charset encoding, boolean mapped) {
                 super();
                 this.path = path;
                 this.encoding = encoding;
+                this.mapped = mapped;
+            }
+
+            /**
+             * @param bytes the bytes to check between their position and their limit
+             * @return {@code true} if all given {@code bytes} are in the ASCII range; {@code false} otherwise
+             */
+            private static boolean isAscii(ByteBuffer bytes) {
+                for (int i = bytes.position(); i < bytes.limit(); i++) {
+                    if (bytes.get(i) < 0) {
+                        return false;
+                    }
+                }
+                return true;
             }
 
             /** {@inheritDoc} */
@@ -456,7 +540,7 @@ public interface Resource {
             @Override
             public ResourcePath getParent() {
                 Path parent = path.getParent();
-                return parent == null ? null : new PathResourcePath(parent, encoding);
+                return parent == null ? null : new PathResourcePath(parent, encoding, mapped);
             }
 
             /** {@inheritDoc} */
@@ -465,18 +549,78 @@ public interface Resource {
                 return Ec4jPaths.of(path);
             }
 
+            /** {@inheritDoc} */
+            @Override
+            public Stamp getStamp() throws IOException {
+                try {
+                    final BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                    return Stamp.of(attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS), attrs.size());
+                } catch (NoSuchFileException e) {
+                    return Stamp.ABSENT;
+                }
+            }
+
             /** {@inheritDoc} */
             @Override
             public int hashCode() {
                 return path.hashCode();
             }
 
-            /** {@inheritDoc} */
+            private boolean isUtf8() {
+                return StandardCharsets.UTF_8.equals(encoding) || Bom.UTF_8_BOM.getCharset().equals(encoding);
+            }
+
+            /**
+             * @return the whole file mapped read-only into memory or {@code null} if the file is too large to be
+             *         mapped into a single {@link ByteBuffer}
+             * @throws IOException on I/O problems
+             */
+            private ByteBuffer map() throws IOException {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    final long size = channel.size();
+                    if (size > Integer.MAX_VALUE) {
+                        return null;
+                    }
+                    return channel.map(MapMode.READ_ONLY, 0, size);
+                }
+            }
+
+            /**
+             * {@inheritDoc} If {@link #mapped} is {@code true} and the file is UTF-8 or ASCII encoded and contains only
+             * ASCII characters, the returned {@link RandomReader} reads directly from the mapped file.
+             */
             @Override
             public RandomReader openRandomReader() throws IOException {
+                if (mapped) {
+                    final ByteBuffer mappedBytes = map();
+                    if (mappedBytes != null) {
+                        final ByteBuffer bytes = Bom.skipBom(mappedBytes, encoding);
+                        if ((isUtf8() || StandardCharsets.US_ASCII.equals(encoding)) && isAscii(bytes)) {
+                            return new AsciiBufferRandomReader(bytes);
+                        }
+                        final CharsetDecoder decoder = encoding.newDecoder()
+                                .onMalformedInput(CodingErrorAction.REPORT)
+                                .onUnmappableCharacter(CodingErrorAction.REPORT);
+                        return new StringRandomReader(decoder.decode(bytes).toString());
+                    }
+                }
                 return new StringRandomReader(Bom.skipBom(Files.readAllBytes(path), encoding));
             }
 
+            /**
+             * {@inheritDoc} Returns the content of the file if the {@link #encoding} is UTF-8 or
+             * {@link Bom#UTF_8_BOM}. If {@link #mapped} is {@code true}, the returned {@link ByteBuffer} is the
+             * memory mapped file.
+             */
+            @Override
+            public ByteBuffer readUtf8Bytes() throws IOException {
+                if (!isUtf8()) {
+                    return null;
+                }
+                final ByteBuffer bytes = mapped ? map() : ByteBuffer.wrap(Files.readAllBytes(path));
+                return bytes == null ? null : Bom.skipBom(bytes, encoding);
+            }
+
             /** {@inheritDoc} */
             @Override
             public Reader openReader() throws IOException {
@@ -610,6 +754,16 @@ public interface Resource {
                 return path;
             }
 
+            /**
+             * {@inheritDoc} The content of a {@link StringResource} never changes so it is enough to distinguish
+             * between existing and non-existing {@link StringResource}s.
+             */
+            @Override
+            public Stamp getStamp() {
+                final Resource resource = resources.get(path);
+                return resource == null ? Stamp.ABSENT : Stamp.of(0, ((StringResource) resource).content.length());
+            }
+
             /** {@inheritDoc} */
             @Override
             public int hashCode() {
@@ -719,6 +873,32 @@ public interface Resource {
             return new PathResource(path, encoding);
         }
 
+        /**
+         * Creates a new {@link Resource} that optionally reads the given {@code path} via
+         * {@link FileChannel#map(MapMode, long, long)} in {@link Resource#openRandomReader()} and
+         * {@link Resource#readUtf8Bytes()}. Mapping avoids copying the content of large files to the heap and lets
+         * the operating system share the pages between processes, but it is slower than plain reading for small files.
+         * Note that some operating systems do not allow to delete or replace a file while it is mapped; the mapping is
+         * released only when the mapped buffer gets garbage collected.
+         * <p>
+         * Note also that {@link org.ec4j.core.parser.EditorConfigParser} calls {@link Resource#readUtf8Bytes()} only
+         * if enabled via {@link org.ec4j.core.parser.EditorConfigParser.Builder#parseUtf8Bytes(boolean)}; otherwise it
+         * reads through {@link Resource#openReader()} which never maps the file, so {@code mapped = true} has no effect
+         * on the parsing of {@code .editorconfig} files.
+         * <p>
+         * The {@link Resource}s and {@link ResourcePath}s derived from the returned {@link Resource}, e.g. via
+         * {@link Resource#getParent()} and {@link ResourcePath#resolve(String)} inherit the {@code mapped} setting.
+         *
+         * @param path the {@link Path} to create a new {@link Resource} from
+         * @param encoding the {@link Charset} to use when reading from the given @{code path}
+         * @param mapped if {@code true} the given {@code path} is memory mapped when read
+         * @return a new {@link PathResource}
+         * @since 0.2.2
+         */
+        public static Resource ofPath(Path path, Charset encoding, boolean mapped) {
+            return new PathResource(path, encoding, mapped);
+        }
+
         /**
          * @param path the file path of this {@link StringResource}, must have at least one segment, e.g.
          *        {@code "my-file.txt"}, or {@code "path/to/my-file.txt"} or {@code "/path/to/my-file.txt"}
@@ -744,6 +924,82 @@ public interface Resource {
         }
     }
 
+    /**
+     * A cheap to obtain token that changes whenever the content of a {@link Resource} changes. Consists of the last
+     * modification time and of the size of the {@link Resource}. See {@link Resource#getStamp()}.
+     *
+     * @since 0.2.2
+     */
+    final class Stamp {
+
+        /** The {@link Stamp} of non-existent {@link Resource}s */
+        public static final Stamp ABSENT = new Stamp(-1L, -1L);
+
+        /**
+         * @param lastModified the last modification time in nanoseconds since the epoch
+         * @param size the size of the {@link Resource}
+         * @return a new {@link Stamp}
+         */
+        public static Stamp of(long lastModified, long size) {
+            return new Stamp(lastModified, size);
+        }
+
+        private final long lastModified;
+        private final long size;
+
+        private Stamp(long lastModified, long size) {
+            super();
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            Stamp other = (Stamp) obj;
+            return lastModified == other.lastModified && size == other.size;
+        }
+
+        /**
+         * @return the last modification time in nanoseconds since the epoch
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return the size of the {@link Resource}
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(lastModified) + Long.hashCode(size);
+        }
+
+        /**
+         * @return {@code true} if this {@link Stamp} belongs to an existing {@link Resource}; {@code false} otherwise
+         */
+        public boolean isPresent() {
+            return this != ABSENT;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return this == ABSENT ? "Stamp[absent]" : "Stamp[lastModified=" + lastModified + ", size=" + size + "]";
+        }
+    }
+
     /**
      * @return {@code true} if this {@link Resource} exists; otherwise {@code false}
      */
@@ -760,6 +1016,20 @@ public interface Resource {
      */
     Ec4jPath getPath();
 
+    /**
+     * Returns a {@link Stamp} that changes whenever the content of this {@link Resource} changes. The implementations
+     * should make this operation as cheap as possible, e.g. by reading just the file attributes in a file system. This
+     * default implementation returns {@code null}.
+     *
+     * @return the current {@link Stamp} of this {@link Resource}, {@link Stamp#ABSENT} if this {@link Resource} does
+     *         not exist or {@code null} if the implementation is not able to tell when its content changes
+     * @throws IOException on I/O problems
+     * @since 0.2.2
+     */
+    default Stamp getStamp() throws IOException {
+        return null;
+    }
+
     /**
      * Opens a {@link RandomReader} to read the content of this {@link Resource}.
      *
@@ -776,4 +1046,18 @@ public interface Resource {
      */
     Reader openReader() throws IOException;
 
+    /**
+     * Reads the content of this {@link Resource} as UTF-8 encoded bytes if the content is UTF-8 encoded and if the
+     * implementation can provide the bytes more cheaply than {@link #openReader()}. Any BOM is skipped: the position
+     * of the returned {@link ByteBuffer} is after the BOM. This default implementation returns {@code null}.
+     *
+     * @return the content of this {@link Resource} between the position and the limit of the returned
+     *         {@link ByteBuffer} or {@code null} if the content should be read using {@link #openReader()}
+     * @throws IOException on I/O problems
+     * @since 0.2.2
+     */
+    default ByteBuffer readUtf8Bytes() throws IOException {
+        return null;
+    }
+
 }
\ No newline at end of file
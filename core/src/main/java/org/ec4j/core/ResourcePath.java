@@ -16,9 +16,17 @@
  */
 package org.ec4j.core;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.ec4j.core.Resource.Resources.ClassPathResource;
 import org.ec4j.core.Resource.Resources.PathResource;
@@ -141,12 +149,25 @@ public interface ResourcePath {
         static class PathResourcePath implements ResourcePath {
 
             private final Charset encoding;
+            /** Passed to the {@link PathResource}s created by this {@link PathResourcePath} */
+            private final boolean mapped;
             private final Path path;
 
             PathResourcePath(Path path, Charset encoding) {
+                this(path, encoding, false);
+            }
+
+            PathResourcePath(Path path, Charset encoding, boolean mapped) {
                 super();
                 this.path = path;
                 this.encoding = encoding;
+                this.mapped = mapped;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public boolean canList() {
+                return true;
             }
 
             /** {@inheritDoc} */
@@ -166,7 +187,7 @@ public interface ResourcePath {
             @Override
             public ResourcePath getParent() {
                 Path parent = path.getParent();
-                return parent == null ? null : new PathResourcePath(parent, encoding);
+                return parent == null ? null : new PathResourcePath(parent, encoding, mapped);
             }
 
             /** {@inheritDoc} */
@@ -187,12 +208,31 @@ public interface ResourcePath {
                 return path.getParent() != null;
             }
 
+            /**
+             * {@inheritDoc} Symbolic links to directories are not followed.
+             */
+            @Override
+            public void list(Collection<Resource> files, Collection<ResourcePath> directories) throws IOException {
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                    for (Path child : children) {
+                        final BasicFileAttributes attrs = Files.readAttributes(child, BasicFileAttributes.class,
+                                LinkOption.NOFOLLOW_LINKS);
+                        if (attrs.isDirectory()) {
+                            directories.add(new PathResourcePath(child, encoding, mapped));
+                        } else if (attrs.isRegularFile() || (attrs.isSymbolicLink() && Files.isRegularFile(child))) {
+                            files.add(new PathResource(child, encoding, mapped));
+                        }
+                    }
+                }
+            }
+
             /** {@inheritDoc} */
             @Override
             public Resource relativize(Resource resource) {
                 if (resource instanceof PathResource) {
                     PathResource pathResource = (PathResource) resource;
-                    return new PathResource(this.path.relativize(pathResource.path), pathResource.encoding);
+                    return new PathResource(this.path.relativize(pathResource.path), pathResource.encoding,
+                            pathResource.mapped);
                 } else {
                     throw new IllegalArgumentException(
                             this.getClass().getName() + ".relativize(Resource resource) can handle only instances of "
@@ -203,7 +243,7 @@ public interface ResourcePath {
             /** {@inheritDoc} */
             @Override
             public Resource resolve(String name) {
-                return new Resource.Resources.PathResource(path.resolve(name), encoding);
+                return new Resource.Resources.PathResource(path.resolve(name), encoding, mapped);
             }
 
             @Override
@@ -226,6 +266,12 @@ public interface ResourcePath {
                 this.resources = resources;
             }
 
+            /** {@inheritDoc} */
+            @Override
+            public boolean canList() {
+                return true;
+            }
+
             /** {@inheritDoc} */
             @Override
             public boolean equals(Object obj) {
@@ -264,6 +310,31 @@ public interface ResourcePath {
                 return path.getParentPath() != null;
             }
 
+            /** {@inheritDoc} */
+            @Override
+            public void list(Collection<Resource> files, Collection<ResourcePath> directories) {
+                final Set<Ec4jPath> dirs = new LinkedHashSet<>();
+                for (Map.Entry<Ec4jPath, Resource> en : resources.entrySet()) {
+                    Ec4jPath child = en.getKey();
+                    Ec4jPath parent = child.getParentPath();
+                    if (path.equals(parent)) {
+                        files.add(en.getValue());
+                    } else {
+                        /* Find out whether child is a descendant of a subdirectory of this */
+                        while (parent != null && !path.equals(parent)) {
+                            child = parent;
+                            parent = parent.getParentPath();
+                        }
+                        if (parent != null) {
+                            dirs.add(child);
+                        }
+                    }
+                }
+                for (Ec4jPath dir : dirs) {
+                    directories.add(new StringResourcePath(dir, resources));
+                }
+            }
+
             /** {@inheritDoc} */
             @Override
             public Resource relativize(Resource resource) {
@@ -308,10 +379,36 @@ public interface ResourcePath {
             return new PathResourcePath(path, encoding);
         }
 
+        /**
+         * @param path
+         *        the {@link Path} to create a new {@link ResourcePath} from
+         * @param encoding
+         *        the {@link Charset} to use when reading {@link Resource}s from the returned {@link ResourcePath}
+         * @param mapped
+         *        if {@code true} the {@link Resource}s resolved or listed from the returned {@link ResourcePath} are
+         *        memory mapped when read, see {@link Resource.Resources#ofPath(Path, Charset, boolean)}
+         * @return a new {@link PathResourcePath}
+         * @since 0.2.2
+         */
+        public static ResourcePath ofPath(Path path, Charset encoding, boolean mapped) {
+            return new PathResourcePath(path, encoding, mapped);
+        }
+
         private ResourcePaths() {
         }
     }
 
+    /**
+     * This default implementation returns {@code false}.
+     *
+     * @return {@code true} if {@link #list(Collection, Collection)} is supported by this {@link ResourcePath} and by
+     *         the child directories it lists; {@code false} otherwise
+     * @since 0.2.2
+     */
+    default boolean canList() {
+        return false;
+    }
+
     /**
      * @return the parent {@link ResourcePath} of this {@link ResourcePath} or {@code null} of this {@link ResourcePath}
      *         has no parent
@@ -328,6 +425,23 @@ public interface ResourcePath {
      */
     boolean hasParent();
 
+    /**
+     * Adds the immediate children of this {@link ResourcePath} to the given {@link Collection}s.
+     * <p>
+     * This default implementation throws an {@link UnsupportedOperationException}. Check {@link #canList()} before
+     * calling this method.
+     *
+     * @param files the {@link Collection} to add the child files to
+     * @param directories the {@link Collection} to add the child directories to
+     * @throws IOException on I/O problems during the listing
+     * @throws UnsupportedOperationException if this {@link ResourcePath} is not able to list its children, i.e. if
+     *         {@link #canList()} returns {@code false}
+     * @since 0.2.2
+     */
+    default void list(Collection<Resource> files, Collection<ResourcePath> directories) throws IOException {
+        throw new UnsupportedOperationException(getClass().getName() + " cannot list its children");
+    }
+
     /**
      * Constructs a {@link Resource} whose path is a relative path between this {@link ResourcePath#getPath()} and the
      * given {@link Resource#getPath()}.
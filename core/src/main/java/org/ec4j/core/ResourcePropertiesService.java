@@ -17,14 +17,34 @@
 package org.ec4j.core;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.ec4j.core.Cache.Caches;
+import org.ec4j.core.Cache.Caches.PermanentCache;
+import org.ec4j.core.Cache.Caches.SingleFlightCache;
 import org.ec4j.core.model.Ec4jPath;
 import org.ec4j.core.model.EditorConfig;
 import org.ec4j.core.model.Property;
@@ -69,6 +89,7 @@ public class ResourcePropertiesService {
         private List<EditorConfig> defaultEditorConfigs = new ArrayList<>();
         private boolean keepUnset = false;
         private EditorConfigLoader loader = EditorConfigLoader.default_();
+        private boolean memoizeProperties = false;
         private Set<ResourcePath> rootDirectories = new LinkedHashSet<>();
 
         public ResourcePropertiesService build() {
@@ -77,7 +98,7 @@ public class ResourcePropertiesService {
             final List<EditorConfig> useDefaultEditorConfigs = Collections.unmodifiableList(defaultEditorConfigs);
             this.defaultEditorConfigs = null;
             return new ResourcePropertiesService(configFileName, useRootDirs, useDefaultEditorConfigs, cache, loader,
-                    keepUnset);
+                    keepUnset, memoizeProperties);
         }
 
         /**
@@ -171,6 +192,23 @@ public class ResourcePropertiesService {
             return this;
         }
 
+        /**
+         * When set to {@code true}, {@link ResourcePropertiesService#queryProperties(Resource)} will return the same
+         * unmodifiable {@link ResourceProperties} instance for all {@link Resource}s of a directory that are matched by
+         * the same {@link Section}s, e.g. for all {@code *.java} files in a package. Otherwise a new modifiable
+         * {@link ResourceProperties} is created for every query. Note that the memoization is effective only if the
+         * {@link Cache} set via {@link #cache(Cache)} tracks its modifications (see
+         * {@link Cache#getModificationCount()}).
+         *
+         * @param memoizeProperties see above
+         * @return this {@link Builder}
+         * @since 0.2.2
+         */
+        public Builder memoizeProperties(boolean memoizeProperties) {
+            this.memoizeProperties = memoizeProperties;
+            return this;
+        }
+
         /**
          * Adds multiple root directories
          *
@@ -208,6 +246,80 @@ public class ResourcePropertiesService {
 
     }
 
+    /**
+     * The {@link DirEditorConfigPair}s applicable to the {@link Resource}s in a single directory, along with the
+     * {@link Cache#getModificationCount()} that was current when the walk started.
+     */
+    private static class Chain {
+        private final List<DirEditorConfigPair> editorConfigs;
+        private final long modificationCount;
+        /**
+         * The {@code .editorconfig} files looked up during the walk along with the {@link EditorConfig}s the
+         * {@link Cache} returned for them, {@code null} standing for an absent file; {@code null} if the {@link Chain}
+         * is not stored in {@link ResourcePropertiesService#chains}
+         */
+        private final Map<Resource, EditorConfig> probed;
+        /**
+         * The memoized {@link ResourceProperties} by the matching {@link Section}s or {@code null} if the results are
+         * not memoized
+         */
+        private final ConcurrentMap<BitSet, ResourceProperties> results;
+
+        private Chain(List<DirEditorConfigPair> editorConfigs, Map<Resource, EditorConfig> probed,
+                long modificationCount, ConcurrentMap<BitSet, ResourceProperties> results) {
+            super();
+            this.editorConfigs = editorConfigs;
+            this.probed = probed;
+            this.modificationCount = modificationCount;
+            this.results = results;
+        }
+    }
+
+    /**
+     * A {@link RecursiveAction} passing the {@link ResourceProperties} of all files under {@link #directory} to
+     * {@link #consumer}. The {@link Chain}s of the subdirectories are local to the walk, i.e. they are not stored in
+     * {@link ResourcePropertiesService#chains}.
+     */
+    private class DirectoryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BiConsumer<Resource, ResourceProperties> consumer;
+        private final ResourcePath directory;
+        private final Chain parentChain;
+
+        private DirectoryTask(ResourcePath directory, Chain parentChain,
+                BiConsumer<Resource, ResourceProperties> consumer) {
+            super();
+            this.directory = directory;
+            this.parentChain = parentChain;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            final List<Resource> files = new ArrayList<>();
+            final List<ResourcePath> directories = new ArrayList<>();
+            try {
+                final Chain chain = parentChain == null ? getChain(directory) : getChildChain(directory, parentChain);
+                directory.list(files, directories);
+                final List<DirectoryTask> subtasks = new ArrayList<>(directories.size());
+                for (ResourcePath dir : directories) {
+                    final DirectoryTask subtask = new DirectoryTask(dir, chain, consumer);
+                    subtask.fork();
+                    subtasks.add(subtask);
+                }
+                for (Resource file : files) {
+                    consumer.accept(file, queryProperties(chain, file));
+                }
+                for (DirectoryTask subtask : subtasks) {
+                    subtask.join();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     /**
      * A pair of {@link EditorConfigLoader} and {@link ResourcePath} of the directory under which the underlyinf
      * {@code .editorconfig} file is located.
@@ -215,13 +327,105 @@ public class ResourcePropertiesService {
     private static class DirEditorConfigPair {
 
         private final ResourcePath directory;
+        /** The {@link String} form of the path of {@link #directory} */
+        private final String directoryPath;
         private final EditorConfig editorConfig;
 
         private DirEditorConfigPair(ResourcePath directory, EditorConfig editorConfig) {
             super();
             this.directory = directory;
+            this.directoryPath = directory.getPath().toString();
             this.editorConfig = editorConfig;
         }
+
+        /**
+         * @param dir a {@link ResourcePath} under or equal to {@link #directory}
+         * @return {@code false} if no {@link Resource} under the given {@code dir} can match any {@link Section} of
+         *         {@link #editorConfig}; {@code true} otherwise
+         */
+        private boolean canMatchUnder(ResourcePath dir) {
+            final String dirPath = dir.getPath().toString();
+            if (dirPath.equals(directoryPath)) {
+                return editorConfig.canMatchUnder(dirPath, dirPath.length());
+            }
+            final int start = relativeStart(dirPath);
+            if (start >= 0) {
+                return editorConfig.canMatchUnder(dirPath, start);
+            }
+            return editorConfig.canMatchUnder(directory.getPath().relativize(dir.getPath()));
+        }
+
+        /**
+         * @param resourcePath the {@link String} form of the path of a {@link Resource} under {@link #directory}
+         * @return the index of the path relative to {@link #directory} in the given {@code resourcePath} or
+         *         {@code -1} if {@link ResourcePath#relativize(Resource)} needs to be used
+         */
+        private int relativeStart(String resourcePath) {
+            final int len = directoryPath.length();
+            if (!resourcePath.startsWith(directoryPath)) {
+                return -1;
+            } else if (len > 0 && directoryPath.charAt(len - 1) == '/') {
+                /* The root directory */
+                return resourcePath.length() > len ? len : -1;
+            } else {
+                return resourcePath.length() > len + 1 && resourcePath.charAt(len) == '/' ? len + 1 : -1;
+            }
+        }
+    }
+
+    /**
+     * A {@link RecursiveAction} passing the files under {@link #directory} matched by any {@link Section} of
+     * {@link #chain} to {@link #consumer}. The subdirectories under which no {@link Section} can match are not listed.
+     */
+    private static class MatchingTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chain chain;
+        private final Consumer<Resource> consumer;
+        private final ResourcePath directory;
+
+        private MatchingTask(ResourcePath directory, Chain chain, Consumer<Resource> consumer) {
+            super();
+            this.directory = directory;
+            this.chain = chain;
+            this.consumer = consumer;
+        }
+
+        private boolean canMatchUnder(ResourcePath dir) {
+            for (DirEditorConfigPair pair : chain.editorConfigs) {
+                if (pair.canMatchUnder(dir)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected void compute() {
+            final List<Resource> files = new ArrayList<>();
+            final List<ResourcePath> directories = new ArrayList<>();
+            try {
+                directory.list(files, directories);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final List<MatchingTask> subtasks = new ArrayList<>(directories.size());
+            for (ResourcePath dir : directories) {
+                if (canMatchUnder(dir)) {
+                    final MatchingTask subtask = new MatchingTask(dir, chain, consumer);
+                    subtask.fork();
+                    subtasks.add(subtask);
+                }
+            }
+            for (Resource file : files) {
+                if (!matchSections(chain.editorConfigs, file).isEmpty()) {
+                    consumer.accept(file);
+                }
+            }
+            for (MatchingTask subtask : subtasks) {
+                subtask.join();
+            }
+        }
     }
 
     /**
@@ -243,16 +447,37 @@ public class ResourcePropertiesService {
         return builder().build();
     }
 
+    /** The maximum number of {@link Chain}s kept in {@link #chains} */
+    private static final int MAX_CHAINS = 1024;
+
     private final Cache cache;
+    /**
+     * The resolved {@link Chain}s by directory in the least recently used first order; all of them are dropped once
+     * the {@link #cache} gets modified and each of them is reused only while the {@link #cache} returns the same
+     * {@link EditorConfig}s for the files in {@link Chain#probed}
+     */
+    private final Map<ResourcePath, Chain> chains = new LinkedHashMap<ResourcePath, Chain>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ResourcePath, Chain> eldest) {
+            return size() > MAX_CHAINS;
+        }
+    };
+    /** The {@link Cache#getModificationCount()} the {@link #chains} were resolved with; only ever moves forward */
+    private final AtomicLong chainsModificationCount = new AtomicLong(-1);
     private final String configFileName;
     private final List<EditorConfig> defaultEditorConfigs;
     private final boolean keepUnset;
     private final EditorConfigLoader loader;
+    private final boolean memoizeProperties;
     private final Set<ResourcePath> rootDirectories;
 
     ResourcePropertiesService(String configFileName, Set<ResourcePath> rootDirectories,
-            List<EditorConfig> defaultEditorConfigs, Cache cache, EditorConfigLoader loader, boolean keepUnset) {
+            List<EditorConfig> defaultEditorConfigs, Cache cache, EditorConfigLoader loader, boolean keepUnset,
+            boolean memoizeProperties) {
         super();
+        this.memoizeProperties = memoizeProperties;
         this.rootDirectories = rootDirectories;
         this.defaultEditorConfigs = defaultEditorConfigs;
         this.loader = loader;
@@ -306,48 +531,268 @@ public class ResourcePropertiesService {
      * {@link ResourcePropertiesService} uses. If you do not specify any {@link Cache} via {@link Builder#cache(Cache)}
      * explicitly, {@link Caches#none()} is used that causes this method to parse each {@code .editorconfig} file every
      * time it is necessary.
+     * <p>
+     * If the {@link Cache} tracks its modifications (see {@link Cache#getModificationCount()}), the
+     * {@code .editorconfig} files applicable to a directory are resolved only once and reused for all
+     * {@link Resource}s in that directory until the {@link Cache} reports a modification. Before the reuse, the
+     * {@link Cache} is asked again for each {@code .editorconfig} file looked up during the resolution, including the
+     * absent ones, so that the files created, changed or deleted in the meantime are noticed as far as the
+     * {@link Cache} notices them. See also {@link Builder#memoizeProperties(boolean)}.
      *
      * @param resource the resource to find the {@link Property}s for
      * @return a {@link ResourceProperties} that contains {@link Property}s applicable to the given {@link Resource}
      * @throws IOException on I/O problems during the reading from the {@code .editorconfig} files.
      */
     public ResourceProperties queryProperties(Resource resource) throws IOException {
-        ResourceProperties.Builder result = ResourceProperties.builder();
-        List<DirEditorConfigPair> editorConfigs = new ArrayList<>();
-        boolean root = false;
-        ResourcePath dir = resource.getParent();
-        /* Walk up the tree storing the .editorconfig models to editorConfigs */
-        while (dir != null && !root) {
-            Resource configFile = dir.resolve(configFileName);
-            if (configFile.exists()) {
-                EditorConfig config = cache.get(configFile, loader);
-                root = config.isRoot();
-                editorConfigs.add(new DirEditorConfigPair(configFile.getParent(), config));
+        return queryProperties(getChain(resource.getParent()), resource);
+    }
+
+    /**
+     * A batch variant of {@link #queryProperties(Resource)}. The given {@link Resource}s are grouped by their parent
+     * directories so that the {@code .editorconfig} files applicable to a directory are looked up only once per
+     * call, regardless of the {@link Cache} in use.
+     *
+     * @param resources the resources to find the {@link Property}s for
+     * @return a {@link Map} from the given {@link Resource}s to their {@link ResourceProperties}, iterating in the
+     *         order of the given {@code resources}
+     * @throws IOException on I/O problems during the reading from the {@code .editorconfig} files.
+     * @since 0.2.2
+     */
+    public Map<Resource, ResourceProperties> queryProperties(Collection<Resource> resources) throws IOException {
+        final Map<Resource, ResourceProperties> result = new LinkedHashMap<>();
+        final Map<ResourcePath, List<Resource>> resourcesByDir = new LinkedHashMap<>();
+        for (Resource resource : resources) {
+            /* Fixes the iteration order of the result */
+            result.put(resource, null);
+            final ResourcePath dir = resource.getParent();
+            List<Resource> dirResources = resourcesByDir.get(dir);
+            if (dirResources == null) {
+                dirResources = new ArrayList<>();
+                resourcesByDir.put(dir, dirResources);
+            }
+            dirResources.add(resource);
+        }
+        for (Map.Entry<ResourcePath, List<Resource>> en : resourcesByDir.entrySet()) {
+            final Chain chain = getChain(en.getKey());
+            for (Resource resource : en.getValue()) {
+                result.put(resource, queryProperties(chain, resource));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Walks the tree under the given {@code directory} using the given {@link ForkJoinPool} and passes each file found
+     * together with its {@link ResourceProperties} to the given {@code consumer}. The {@code .editorconfig} files
+     * applicable to a directory are derived from the ones applicable to its parent directory, so that each
+     * {@code .editorconfig} file is looked up only once per walk, regardless of the {@link Cache} in use.
+     * <p>
+     * Note that both the {@code consumer} and the {@link Cache} of this {@link ResourcePropertiesService} are
+     * accessed from the threads of the given {@link ForkJoinPool} concurrently.
+     *
+     * @param directory the root of the tree to walk
+     * @param pool the {@link ForkJoinPool} to walk the tree with
+     * @param consumer the callback to pass the files and their {@link ResourceProperties} to
+     * @throws IOException on I/O problems during the listing of the directories or during the reading from the
+     *         {@code .editorconfig} files.
+     * @throws UnsupportedOperationException if the given {@code directory} cannot list its children, see
+     *         {@link ResourcePath#canList()}
+     * @throws IllegalStateException if the {@link Cache} of this {@link ResourcePropertiesService} cannot be
+     *         accessed from concurrent threads, such as {@link Caches#permanent()}
+     * @since 0.2.2
+     */
+    public void queryTree(ResourcePath directory, ForkJoinPool pool, BiConsumer<Resource, ResourceProperties> consumer)
+            throws IOException {
+        checkCanList(directory);
+        checkThreadSafeCache();
+        try {
+            pool.invoke(new DirectoryTask(directory, null, consumer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Walks the tree under the given {@code directory} using the given {@link ForkJoinPool} and passes each file
+     * matched by at least one {@link Section} of the {@code .editorconfig} files applicable to the given
+     * {@code directory} to the given {@code consumer}. The subdirectories under which no such {@link Section} can
+     * match (see {@link EditorConfig#canMatchUnder(Ec4jPath)}) are skipped without being listed.
+     * <p>
+     * Note that only the {@code .editorconfig} files in the given {@code directory} and in its ancestors (plus the
+     * defaults) are considered; the {@code .editorconfig} files located in the walked tree are not. Use
+     * {@link #queryTree(ResourcePath, ForkJoinPool, BiConsumer)} to get the {@link ResourceProperties} of all files in
+     * a tree. Note also that the {@code consumer} is called from the threads of the given {@link ForkJoinPool}
+     * concurrently.
+     *
+     * @param directory the root of the tree to walk
+     * @param pool the {@link ForkJoinPool} to walk the tree with
+     * @param consumer the callback to pass the matching files to
+     * @throws IOException on I/O problems during the listing of the directories or during the reading from the
+     *         {@code .editorconfig} files.
+     * @throws UnsupportedOperationException if the given {@code directory} cannot list its children, see
+     *         {@link ResourcePath#canList()}
+     * @since 0.2.2
+     */
+    public void findMatchingResources(ResourcePath directory, ForkJoinPool pool, Consumer<Resource> consumer)
+            throws IOException {
+        checkCanList(directory);
+        final Chain chain = getChain(directory);
+        try {
+            pool.invoke(new MatchingTask(directory, chain, consumer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * An asynchronous variant of {@link #queryProperties(Resource)}. Unless the {@code .editorconfig} files
+     * applicable to the parent directory of the given {@link Resource} are known already, the {@code .editorconfig}
+     * files in all ancestor directories up to the nearest root directory (see
+     * {@link Builder#rootDirectory(ResourcePath)}) are looked up concurrently using the given {@link Executor}. The
+     * lookups in the directories above an {@code .editorconfig} file declaring {@code root = true} are thus done in
+     * vain, but their failures are ignored.
+     * <p>
+     * Note that the {@link Cache} of this {@link ResourcePropertiesService} is accessed from the threads of the given
+     * {@link Executor} concurrently.
+     *
+     * @param resource the resource to find the {@link Property}s for
+     * @param executor the {@link Executor} to perform the lookups and the matching with
+     * @return a {@link CompletionStage} completed with the {@link ResourceProperties} applicable to the given
+     *         {@link Resource} or completed exceptionally with a {@link CompletionException} wrapping the
+     *         {@link IOException} thrown during the reading from the {@code .editorconfig} files
+     * @throws IllegalStateException if the {@link Cache} of this {@link ResourcePropertiesService} cannot be
+     *         accessed from concurrent threads, such as {@link Caches#permanent()}
+     * @since 0.2.2
+     */
+    public CompletionStage<ResourceProperties> queryPropertiesAsync(final Resource resource,
+            final Executor executor) {
+        checkThreadSafeCache();
+        final ResourcePath directory = resource.getParent();
+        /* Reusing a cached chain involves Cache lookups that may access the file system, so do it in the executor */
+        return CompletableFuture.supplyAsync(new Supplier<CompletionStage<ResourceProperties>>() {
+            @Override
+            public CompletionStage<ResourceProperties> get() {
+                try {
+                    final long modificationCount = cache.getModificationCount();
+                    final Chain chain = getCachedChain(directory, modificationCount);
+                    if (chain != null || directory == null) {
+                        return CompletableFuture
+                                .completedFuture(queryProperties(chain == null ? getChain(directory) : chain, resource));
+                    }
+                    return preloadChain(resource, directory, modificationCount, executor);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }
+        }, executor).thenCompose(
+                new Function<CompletionStage<ResourceProperties>, CompletionStage<ResourceProperties>>() {
+                    @Override
+                    public CompletionStage<ResourceProperties> apply(CompletionStage<ResourceProperties> result) {
+                        return result;
+                    }
+                });
+    }
+
+    /**
+     * Looks up the {@code .editorconfig} files in the given {@code directory} and in its ancestors concurrently and
+     * queries the {@link ResourceProperties} of the given {@link Resource} once all lookups are finished. See
+     * {@link #queryPropertiesAsync(Resource, Executor)}.
+     *
+     * @param resource the resource to find the {@link Property}s for
+     * @param directory the parent directory of the given {@link Resource}
+     * @param modificationCount the {@link Cache#getModificationCount()} read before the lookups
+     * @param executor the {@link Executor} to perform the lookups and the matching with
+     * @return a {@link CompletableFuture} completed with the {@link ResourceProperties} applicable to the given
+     *         {@link Resource}
+     */
+    private CompletableFuture<ResourceProperties> preloadChain(final Resource resource, final ResourcePath directory,
+            final long modificationCount, Executor executor) {
+        final List<CompletableFuture<EditorConfig>> preloaded = new ArrayList<>();
+        ResourcePath dir = directory;
+        while (dir != null) {
+            final Resource configFile = dir.resolve(configFileName);
+            preloaded.add(CompletableFuture.supplyAsync(new Supplier<EditorConfig>() {
+                @Override
+                public EditorConfig get() {
+                    try {
+                        return cache.getIfExists(configFile, loader);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }
+            }, executor));
+            if (rootDirectories.contains(dir)) {
+                break;
             }
-            root |= rootDirectories.contains(dir);
             dir = dir.getParent();
         }
 
-        /* Add the defaults in order */
-        if (!defaultEditorConfigs.isEmpty()) {
-            final ResourcePath lastDir = editorConfigs.isEmpty() //
-                    ? resource.getParent() //
-                    : editorConfigs.get(editorConfigs.size() - 1).directory;
-            for (EditorConfig ec : defaultEditorConfigs) {
-                editorConfigs.add(new DirEditorConfigPair(lastDir, ec));
+        /* Wait for all lookups to finish, successfully or not */
+        final CompletableFuture<?>[] finished = new CompletableFuture<?>[preloaded.size()];
+        for (int i = 0; i < finished.length; i++) {
+            finished[i] = preloaded.get(i).handle(new BiFunction<EditorConfig, Throwable, Void>() {
+                @Override
+                public Void apply(EditorConfig editorConfig, Throwable failure) {
+                    return null;
+                }
+            });
+        }
+        return CompletableFuture.allOf(finished).thenApplyAsync(new Function<Void, ResourceProperties>() {
+            @Override
+            public ResourceProperties apply(Void v) {
+                try {
+                    final Map<Resource, EditorConfig> probed = new LinkedHashMap<>();
+                    final List<DirEditorConfigPair> editorConfigs = resolveEditorConfigs(directory, null, preloaded,
+                            probed);
+                    return queryProperties(newChain(directory, editorConfigs, probed, modificationCount), resource);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }
+        }, executor);
+    }
+
+    /**
+     * @param chain the {@link Chain} applicable to the given {@link Resource}
+     * @param resource the resource to find the {@link Property}s for
+     * @return a {@link ResourceProperties} that contains {@link Property}s applicable to the given {@link Resource}
+     */
+    private ResourceProperties queryProperties(Chain chain, Resource resource) {
+        final BitSet matchingSections = matchSections(chain.editorConfigs, resource);
+        if (chain.results == null) {
+            return buildProperties(chain.editorConfigs, matchingSections).build();
+        }
+        ResourceProperties result = chain.results.get(matchingSections);
+        if (result == null) {
+            final ResourceProperties props = buildProperties(chain.editorConfigs, matchingSections).build();
+            result = new ResourceProperties(Collections.unmodifiableMap(props.getProperties()));
+            final ResourceProperties concurrent = chain.results.putIfAbsent(matchingSections, result);
+            if (concurrent != null) {
+                result = concurrent;
             }
         }
+        return result;
+    }
 
-        /* Now go back top down so that the duplicate properties defined closer to the given resource win */
+    /**
+     * Merges the {@link Property}s of the given {@code matchingSections}.
+     *
+     * @param editorConfigs the {@link DirEditorConfigPair}s ordered bottom up
+     * @param matchingSections the indexes of the matching {@link Section}s as returned by
+     *        {@link #matchSections(List, Resource)}
+     * @return a {@link ResourceProperties.Builder} containing the merged {@link Property}s
+     */
+    private ResourceProperties.Builder buildProperties(List<DirEditorConfigPair> editorConfigs,
+            BitSet matchingSections) {
+        ResourceProperties.Builder result = ResourceProperties.builder();
+        int sectionIndex = 0;
+        /* Go top down so that the duplicate properties defined closer to the given resource win */
         int i = editorConfigs.size() - 1;
         while (i >= 0) {
             final DirEditorConfigPair pair = editorConfigs.get(i--);
-            final ResourcePath editorConfigDir = pair.directory;
-            final EditorConfig config = pair.editorConfig;
-            final Ec4jPath path = editorConfigDir.relativize(resource).getPath();
-            List<Section> sections = config.getSections();
+            List<Section> sections = pair.editorConfig.getSections();
             for (Section section : sections) {
-                if (section.match(path)) {
+                if (matchingSections.get(sectionIndex++)) {
                     // Section matches the editor file, collect options of the section
                     if (keepUnset) {
                         result.properties(section.getProperties());
@@ -363,7 +808,215 @@ public class ResourcePropertiesService {
                 }
             }
         }
-        return result.build();
+        return result;
+    }
+
+    /**
+     * Returns the {@link Chain} applicable to the {@link Resource}s in the given {@code directory}, either from
+     * {@link #chains} or by walking up the tree.
+     *
+     * @param directory the parent directory of the {@link Resource}s to query
+     * @return the {@link Chain}
+     * @throws IOException on I/O problems during the reading from the {@code .editorconfig} files.
+     */
+    private Chain getChain(ResourcePath directory) throws IOException {
+        /* Read the count before walking so that modifications made during the walk invalidate the result */
+        final long modificationCount = cache.getModificationCount();
+        final Chain chain = getCachedChain(directory, modificationCount);
+        if (chain != null) {
+            return chain;
+        }
+        final Map<Resource, EditorConfig> probed = new LinkedHashMap<>();
+        return newChain(directory, resolveEditorConfigs(directory, null, null, probed), probed, modificationCount);
+    }
+
+    /**
+     * Returns a new {@link Chain} applicable to the {@link Resource}s in the given {@code directory} derived from the
+     * {@link Chain} of its parent. The result is not stored in {@link #chains}.
+     *
+     * @param directory the parent directory of the {@link Resource}s to query
+     * @param parentChain the {@link Chain} of the parent of the given {@code directory}
+     * @return the new {@link Chain}
+     * @throws IOException on I/O problems during the reading from the {@code .editorconfig} files.
+     */
+    private Chain getChildChain(ResourcePath directory, Chain parentChain) throws IOException {
+        return new Chain(resolveEditorConfigs(directory, parentChain, null, null), null,
+                parentChain.modificationCount,
+                parentChain.results == null ? null : new ConcurrentHashMap<BitSet, ResourceProperties>());
+    }
+
+    /**
+     * @throws IllegalStateException if the {@link #cache} is known not to be safely accessible from concurrent
+     *         threads
+     */
+    private void checkThreadSafeCache() {
+        Cache c = cache;
+        while (c instanceof SingleFlightCache) {
+            c = ((SingleFlightCache) c).getDelegate();
+        }
+        if (c instanceof PermanentCache) {
+            throw new IllegalStateException(PermanentCache.class.getName()
+                    + " cannot be accessed from concurrent threads; use a thread safe Cache such as "
+                    + Caches.class.getName() + ".concurrent()");
+        }
+    }
+
+    /**
+     * @param directory the directory to check
+     * @throws UnsupportedOperationException if the given {@code directory} cannot list its children
+     */
+    private static void checkCanList(ResourcePath directory) {
+        if (!directory.canList()) {
+            throw new UnsupportedOperationException(directory.getClass().getName() + " cannot list its children");
+        }
+    }
+
+    /**
+     * @param directory the parent directory of the {@link Resource}s to query
+     * @param modificationCount the current {@link Cache#getModificationCount()}
+     * @return the {@link Chain} stored in {@link #chains} for the given {@code directory} or {@code null} if there is
+     *         no up to date one
+     * @throws IOException on I/O problems during the reading from the {@code .editorconfig} files.
+     */
+    private Chain getCachedChain(ResourcePath directory, long modificationCount) throws IOException {
+        if (modificationCount < 0 || directory == null) {
+            return null;
+        }
+        long current;
+        while ((current = chainsModificationCount.get()) < modificationCount) {
+            if (chainsModificationCount.compareAndSet(current, modificationCount)) {
+                synchronized (chains) {
+                    chains.clear();
+                }
+                break;
+            }
+        }
+        final Chain chain;
+        synchronized (chains) {
+            chain = chains.get(directory);
+        }
+        if (chain == null || chain.modificationCount != modificationCount) {
+            return null;
+        }
+        /* The count does not cover the files whose absence the cache does not remember, so ask again for all */
+        for (Map.Entry<Resource, EditorConfig> e : chain.probed.entrySet()) {
+            if (cache.getIfExists(e.getKey(), loader) != e.getValue()) {
+                return null;
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * Creates a new {@link Chain} and stores it in {@link #chains} if the {@link #cache} tracks its modifications.
+     *
+     * @param directory the parent directory of the {@link Resource}s to query
+     * @param editorConfigs the {@link DirEditorConfigPair}s ordered bottom up, the defaults being the last ones
+     * @param probed the {@code .editorconfig} files looked up while resolving the {@code editorConfigs}, see
+     *        {@link Chain#probed}
+     * @param modificationCount the {@link Cache#getModificationCount()} read before the {@code editorConfigs} were
+     *        resolved
+     * @return the new {@link Chain}
+     */
+    private Chain newChain(ResourcePath directory, List<DirEditorConfigPair> editorConfigs,
+            Map<Resource, EditorConfig> probed, long modificationCount) {
+        if (modificationCount < 0 || directory == null) {
+            return new Chain(editorConfigs, null, modificationCount, null);
+        }
+        final Chain result = new Chain(editorConfigs, probed, modificationCount,
+                memoizeProperties ? new ConcurrentHashMap<BitSet, ResourceProperties>() : null);
+        if (modificationCount == chainsModificationCount.get()) {
+            /* Do not store the chains resolved before the last modification */
+            synchronized (chains) {
+                chains.put(directory, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the {@link Section}s matching the given {@link Resource}. The {@link Section}s are numbered top down,
+     * i.e. in the order in which their {@link Property}s get applied.
+     *
+     * @param editorConfigs the {@link DirEditorConfigPair}s ordered bottom up
+     * @param resource the {@link Resource} to match
+     * @return the indexes of the matching {@link Section}s
+     */
+    private static BitSet matchSections(List<DirEditorConfigPair> editorConfigs, Resource resource) {
+        final BitSet result = new BitSet();
+        final String resourcePath = resource.getPath().toString();
+        int sectionIndex = 0;
+        int i = editorConfigs.size() - 1;
+        while (i >= 0) {
+            final DirEditorConfigPair pair = editorConfigs.get(i--);
+            /* Avoid relativizing the resource against each directory if possible */
+            final int start = pair.relativeStart(resourcePath);
+            if (start >= 0) {
+                pair.editorConfig.matchSections(resourcePath, start, result, sectionIndex);
+            } else {
+                final Ec4jPath path = pair.directory.relativize(resource).getPath();
+                pair.editorConfig.matchSections(path, result, sectionIndex);
+            }
+            sectionIndex += pair.editorConfig.getSections().size();
+        }
+        return result;
+    }
+
+    /**
+     * Walks up the tree from the given {@code directory} and collects the {@code .editorconfig} models applicable to
+     * the {@link Resource}s in that directory.
+     *
+     * @param directory the parent directory of the {@link Resource}s to query
+     * @param parentChain the {@link Chain} of the parent of the given {@code directory} or {@code null} if not
+     *        available; if available, the walk stops at the parent
+     * @param preloaded the {@code .editorconfig} models of the given {@code directory} and its ancestors being loaded
+     *        by {@link #queryPropertiesAsync(Resource, Executor)} or {@code null} if the {@link #cache} should be
+     *        asked directly
+     * @param probed the {@link Map} to store the looked up {@code .editorconfig} files to, see {@link Chain#probed},
+     *        or {@code null} if they do not need to be stored
+     * @return the {@link DirEditorConfigPair}s ordered bottom up, the defaults being the last ones
+     * @throws IOException on I/O problems during the reading from the {@code .editorconfig} files.
+     */
+    private List<DirEditorConfigPair> resolveEditorConfigs(ResourcePath directory, Chain parentChain,
+            List<CompletableFuture<EditorConfig>> preloaded, Map<Resource, EditorConfig> probed) throws IOException {
+        List<DirEditorConfigPair> editorConfigs = new ArrayList<>();
+        boolean root = false;
+        ResourcePath dir = directory;
+        int depth = 0;
+        /* Walk up the tree storing the .editorconfig models to editorConfigs */
+        while (dir != null && !root) {
+            if (parentChain != null && dir != directory) {
+                /* The parent is resolved already; take its .editorconfig files without the defaults */
+                final List<DirEditorConfigPair> parentEditorConfigs = parentChain.editorConfigs;
+                editorConfigs.addAll(
+                        parentEditorConfigs.subList(0, parentEditorConfigs.size() - defaultEditorConfigs.size()));
+                break;
+            }
+            Resource configFile = dir.resolve(configFileName);
+            EditorConfig config = preloaded == null //
+                    ? cache.getIfExists(configFile, loader) //
+                    : preloaded.get(depth++).join();
+            if (probed != null) {
+                probed.put(configFile, config);
+            }
+            if (config != null) {
+                root = config.isRoot();
+                editorConfigs.add(new DirEditorConfigPair(configFile.getParent(), config));
+            }
+            root |= rootDirectories.contains(dir);
+            dir = dir.getParent();
+        }
+
+        /* Add the defaults in order */
+        if (!defaultEditorConfigs.isEmpty()) {
+            final ResourcePath lastDir = editorConfigs.isEmpty() //
+                    ? directory //
+                    : editorConfigs.get(editorConfigs.size() - 1).directory;
+            for (EditorConfig ec : defaultEditorConfigs) {
+                editorConfigs.add(new DirEditorConfigPair(lastDir, ec));
+            }
+        }
+        return editorConfigs;
     }
 
 }
@@ -17,9 +17,12 @@
 package org.ec4j.core.model;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A immutable model of an {@code .editorconfig} file.
@@ -159,6 +162,199 @@ public class EditorConfig extends Adaptable {
         }
     }
 
+    /**
+     * A hash table mapping file names or file extensions to section indices that can be queried with a region of a
+     * {@link String} without creating a substring.
+     */
+    private static class SectionIndex {
+        private static final int[][] EMPTY = new int[0][];
+
+        private static int hash(String str, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + str.charAt(i);
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private final String[] keys;
+        private final int mask;
+        private final int[][] values;
+
+        SectionIndex(Map<String, List<Integer>> entries) {
+            super();
+            if (entries.isEmpty()) {
+                this.keys = new String[0];
+                this.values = EMPTY;
+                this.mask = -1;
+            } else {
+                int capacity = 2;
+                while (capacity < entries.size() * 2) {
+                    capacity <<= 1;
+                }
+                this.keys = new String[capacity];
+                this.values = new int[capacity][];
+                this.mask = capacity - 1;
+                for (Map.Entry<String, List<Integer>> entry : entries.entrySet()) {
+                    final String key = entry.getKey();
+                    int slot = hash(key, 0, key.length()) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = key;
+                    values[slot] = SectionMatcher.toArray(entry.getValue());
+                }
+            }
+        }
+
+        /**
+         * @param str the string containing the key
+         * @param start the index of the first character of the key in {@code str}
+         * @return the section indices stored under the key spanning from {@code start} to the end of {@code str}
+         *         or {@code null} if there are none
+         */
+        int[] get(String str, int start) {
+            if (mask < 0) {
+                return null;
+            }
+            final int len = str.length() - start;
+            int slot = hash(str, start, str.length()) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (key.length() == len && str.startsWith(key, start)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Matches paths against all {@link Section}s of an {@link EditorConfig} at once.
+     */
+    private static class SectionMatcher {
+        private static void put(Map<String, List<Integer>> index, String key, int sectionIndex) {
+            List<Integer> ids = index.get(key);
+            if (ids == null) {
+                ids = new ArrayList<>();
+                index.put(key, ids);
+            }
+            if (ids.isEmpty() || ids.get(ids.size() - 1) != sectionIndex) {
+                ids.add(sectionIndex);
+            }
+        }
+
+        /** The indices of the sections matching all paths, such as {@code [*]} */
+        private final int[] anyIds;
+        /** The candidate sections for a last segment having the given extension (without the dot) */
+        private final SectionIndex extensionIndex;
+        /** The indices of the sections matched by {@link #fullPathAutomaton} */
+        private final int[] fullPathIds;
+        /** Matches the sections whose globs need to be matched against the whole path or {@code null} */
+        private final GlobAutomaton fullPathAutomaton;
+        /** The indices of the sections matched by {@link #lastSegmentAutomaton} */
+        private final int[] lastSegmentIds;
+        /** Matches the sections whose globs need to be matched against the last path segment or {@code null} */
+        private final GlobAutomaton lastSegmentAutomaton;
+        /** The sections matching a last segment equal to the given name */
+        private final SectionIndex nameIndex;
+        /** The indices of the sections that cannot be matched by any of the automata */
+        private final int[] otherIds;
+
+        SectionMatcher(List<Section> sections) {
+            super();
+            final List<GlobAutomaton> fullPath = new ArrayList<>();
+            final List<Integer> fullPathIds = new ArrayList<>();
+            final List<GlobAutomaton> lastSegment = new ArrayList<>();
+            final List<Integer> lastSegmentIds = new ArrayList<>();
+            final List<Integer> otherIds = new ArrayList<>();
+            final List<Integer> anyIds = new ArrayList<>();
+            final Map<String, List<Integer>> extensions = new LinkedHashMap<>();
+            final Map<String, List<Integer>> names = new LinkedHashMap<>();
+            for (int i = 0; i < sections.size(); i++) {
+                final Glob glob = sections.get(i).getGlob();
+                final GlobAutomaton automaton = glob == null ? null : glob.getAutomaton();
+                final Glob.FastPath fastPath = glob == null || !glob.isMatchLastSegmentOnly() || !glob.isValid() //
+                        ? null //
+                        : glob.getFastPath();
+                if (fastPath != null && fastPath.isAny()) {
+                    anyIds.add(i);
+                } else if (fastPath != null && fastPath.getNames() != null) {
+                    for (String name : fastPath.getNames()) {
+                        put(names, name, i);
+                    }
+                } else if (fastPath != null && fastPath.getSuffixes() != null) {
+                    for (String suffix : fastPath.getSuffixes()) {
+                        put(extensions, suffix.substring(suffix.lastIndexOf('.') + 1), i);
+                    }
+                } else if (automaton == null) {
+                    otherIds.add(i);
+                } else if (glob.isMatchLastSegmentOnly()) {
+                    lastSegment.add(automaton);
+                    lastSegmentIds.add(i);
+                } else {
+                    fullPath.add(automaton);
+                    fullPathIds.add(i);
+                }
+            }
+            this.fullPathAutomaton = fullPath.isEmpty() ? null : GlobAutomaton.union(fullPath);
+            this.fullPathIds = toArray(fullPathIds);
+            this.lastSegmentAutomaton = lastSegment.isEmpty() ? null : GlobAutomaton.union(lastSegment);
+            this.lastSegmentIds = toArray(lastSegmentIds);
+            this.otherIds = toArray(otherIds);
+            this.anyIds = toArray(anyIds);
+            this.extensionIndex = new SectionIndex(extensions);
+            this.nameIndex = new SectionIndex(names);
+        }
+
+        private static int[] toArray(List<Integer> list) {
+            final int[] result = new int[list.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = list.get(i);
+            }
+            return result;
+        }
+
+        void match(List<Section> sections, String path, int start, BitSet result, int offset) {
+            for (int i : anyIds) {
+                result.set(offset + i);
+            }
+            final int lastSegmentStart = Math.max(start, path.lastIndexOf('/') + 1);
+            final int[] nameIds = nameIndex.get(path, lastSegmentStart);
+            if (nameIds != null) {
+                for (int i : nameIds) {
+                    result.set(offset + i);
+                }
+            }
+            final int lastDot = path.lastIndexOf('.');
+            if (lastDot >= lastSegmentStart) {
+                final int[] extensionIds = extensionIndex.get(path, lastDot + 1);
+                if (extensionIds != null) {
+                    /* A multi dot suffix such as .min.js is indexed under its last extension only */
+                    for (int i : extensionIds) {
+                        if (sections.get(i).getGlob().match(path, start)) {
+                            result.set(offset + i);
+                        }
+                    }
+                }
+            }
+            if (lastSegmentAutomaton != null) {
+                lastSegmentAutomaton.matchAll(path, lastSegmentStart, result, lastSegmentIds, offset);
+            }
+            if (fullPathAutomaton != null) {
+                fullPathAutomaton.matchAll(path, start, result, fullPathIds, offset);
+            }
+            for (int i : otherIds) {
+                final Glob glob = sections.get(i).getGlob();
+                /* null glob matches all */
+                if (glob == null || glob.match(path, start)) {
+                    result.set(offset + i);
+                }
+            }
+        }
+    }
+
     /**
      * @return a new {@link EditorConfig.Builder}
      */
@@ -175,6 +371,9 @@ public class EditorConfig extends Adaptable {
      */
     private final Boolean root;
 
+    /** Created lazily by {@link #getSectionMatcher()}; a benign race can create more than one instance */
+    private volatile SectionMatcher sectionMatcher;
+
     private final List<Section> sections;
 
     private final Version version;
@@ -194,6 +393,45 @@ public class EditorConfig extends Adaptable {
         this.sections = sections;
     }
 
+    /**
+     * Tells whether the glob of any of the {@link #getSections()} can match a path under the given directory, see
+     * {@link Glob#canMatchUnder(Ec4jPath)}.
+     *
+     * @param directory
+     *        a slash ({@code /}) separated directory path relative to the directory of this {@link EditorConfig}
+     * @return {@code false} if no path under the given {@code directory} can match any of the {@link #getSections()};
+     *         {@code true} otherwise
+     * @since 0.2.2
+     */
+    public boolean canMatchUnder(Ec4jPath directory) {
+        return canMatchUnder(directory.toString(), 0);
+    }
+
+    /**
+     * A variant of {@link #canMatchUnder(Ec4jPath)} that considers only the part of the given {@code directoryPath}
+     * starting at the given {@code start} index, see {@link Glob#canMatchUnder(String, int)}.
+     *
+     * @param directoryPath
+     *        a slash ({@code /}) separated directory path
+     * @param start
+     *        the index of the first character of the directory path relative to the directory of this
+     *        {@link EditorConfig} in the given {@code directoryPath}
+     * @return {@code false} if no path under the relative directory can match any of the {@link #getSections()};
+     *         {@code true} otherwise
+     * @since 0.2.2
+     */
+    public boolean canMatchUnder(String directoryPath, int start) {
+        final String prefix = start >= directoryPath.length() ? null : directoryPath.substring(start) + '/';
+        for (Section section : sections) {
+            final Glob glob = section.getGlob();
+            /* null glob matches all */
+            if (glob == null || (prefix == null ? glob.isValid() : glob.canMatchAfter(prefix))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -221,6 +459,15 @@ public class EditorConfig extends Adaptable {
         return true;
     }
 
+    private SectionMatcher getSectionMatcher() {
+        SectionMatcher result = sectionMatcher;
+        if (result == null) {
+            result = new SectionMatcher(sections);
+            sectionMatcher = result;
+        }
+        return result;
+    }
+
     /**
      * @return the {@link List} of {@link Section}s
      */
@@ -261,6 +508,58 @@ public class EditorConfig extends Adaptable {
         return Boolean.TRUE.equals(root);
     }
 
+    /**
+     * Matches the given {@code path} against the globs of all {@link #getSections()} in a single pass over the
+     * {@code path}.
+     *
+     * @param path
+     *        a slash ({@code /}) separated file path relative to the directory of this {@link EditorConfig}
+     * @return a new {@link BitSet} having the indices of the matching {@link #getSections()} set
+     * @since 0.2.2
+     */
+    public BitSet matchSections(Ec4jPath path) {
+        final BitSet result = new BitSet(sections.size());
+        matchSections(path, result, 0);
+        return result;
+    }
+
+    /**
+     * Matches the given {@code path} against the globs of all {@link #getSections()} in a single pass over the
+     * {@code path}. The result is equivalent to calling {@link Section#match(Ec4jPath)} on each of the
+     * {@link #getSections()}.
+     *
+     * @param path
+     *        a slash ({@code /}) separated file path relative to the directory of this {@link EditorConfig}
+     * @param result
+     *        the {@link BitSet} to set the bits of the matching {@link #getSections()} in
+     * @param offset
+     *        the bit to set for the first of the {@link #getSections()}; the bit {@code offset + i} is set if the
+     *        {@code i}-th section matches
+     * @since 0.2.2
+     */
+    public void matchSections(Ec4jPath path, BitSet result, int offset) {
+        getSectionMatcher().match(sections, path.toString(), 0, result, offset);
+    }
+
+    /**
+     * A variant of {@link #matchSections(Ec4jPath, BitSet, int)} that matches only the part of the given
+     * {@code path} starting at the given {@code start} index, see {@link Glob#match(String, int)}.
+     *
+     * @param path
+     *        a slash ({@code /}) separated file path
+     * @param start
+     *        the index of the first character of the path relative to the directory of this {@link EditorConfig}
+     *        in the given {@code path}
+     * @param result
+     *        the {@link BitSet} to set the bits of the matching {@link #getSections()} in
+     * @param offset
+     *        the bit to set for the first of the {@link #getSections()}
+     * @since 0.2.2
+     */
+    public void matchSections(String path, int start, BitSet result, int offset) {
+        getSectionMatcher().match(sections, path, start, result, offset);
+    }
+
     @Override
     public String toString() {
         StringBuilder s = new StringBuilder();
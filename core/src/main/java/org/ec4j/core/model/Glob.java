@@ -17,7 +17,12 @@
 package org.ec4j.core.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -47,23 +52,349 @@ import java.util.regex.PatternSyntaxException;
  */
 public class Glob {
 
+    /**
+     * A matcher for the most common glob shapes, such as {@code *}, {@code *.ext}, {@code {*.a,*.b}},
+     * {@code Makefile} or {@code dir/**}, that does not need any {@link GlobAutomaton} or {@link Pattern}.
+     */
+    abstract static class FastPath {
+
+        /** Matches {@code *} */
+        private static class Any extends FastPath {
+            @Override
+            boolean isAny() {
+                return true;
+            }
+
+            @Override
+            boolean match(String path, int start) {
+                return true;
+            }
+        }
+
+        /** Matches {@code name} or {@code {name1,name2}} */
+        private static class Names extends FastPath {
+            /**
+             * {@code true} if the names are matched against whole relative paths, like in {@code /Makefile};
+             * {@code false} if they are matched against the last segment of paths
+             */
+            private final boolean anchored;
+            private final String[] names;
+
+            private Names(Set<String> names, boolean anchored) {
+                super();
+                this.names = names.toArray(new String[0]);
+                this.anchored = anchored;
+            }
+
+            @Override
+            boolean canMatchAfter(String prefix) {
+                /* The names do not contain any slash, so an anchored name cannot match under any directory */
+                return !anchored;
+            }
+
+            @Override
+            String[] getNames() {
+                return names;
+            }
+
+            @Override
+            boolean match(String path, int start) {
+                final int len = path.length() - start;
+                for (String name : names) {
+                    if (name.length() == len && path.startsWith(name, start)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        /** Matches {@code dir/**} */
+        private static class Prefix extends FastPath {
+            private final String prefix;
+
+            private Prefix(String prefix) {
+                super();
+                this.prefix = prefix;
+            }
+
+            @Override
+            boolean canMatchAfter(String directoryPrefix) {
+                return directoryPrefix.startsWith(prefix) || prefix.startsWith(directoryPrefix);
+            }
+
+            @Override
+            boolean match(String path, int start) {
+                if (!path.startsWith(prefix, start)) {
+                    return false;
+                }
+                /* ** is translated to .* that does not match line terminators */
+                for (int i = start + prefix.length(); i < path.length(); i++) {
+                    switch (path.charAt(i)) {
+                        case '\n':
+                        case '\r':
+                        case '\u0085':
+                        case '\u2028':
+                        case '\u2029':
+                            return false;
+                        default:
+                            break;
+                    }
+                }
+                return true;
+            }
+        }
+
+        /** Matches {@code *.ext} or {@code {*.ext1,*.ext2}} */
+        private static class Suffixes extends FastPath {
+            private final String[] suffixes;
+
+            private Suffixes(String[] suffixes) {
+                super();
+                this.suffixes = suffixes;
+            }
+
+            @Override
+            String[] getSuffixes() {
+                return suffixes;
+            }
+
+            @Override
+            boolean match(String path, int start) {
+                final int len = path.length() - start;
+                for (String suffix : suffixes) {
+                    if (suffix.length() <= len && path.endsWith(suffix)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        private static final FastPath ANY = new Any();
+
+        /**
+         * @param str the string to check
+         * @return {@code true} if the given {@code str} does not contain any character having a special meaning in
+         *         globs
+         */
+        private static boolean isPlain(String str) {
+            for (int i = 0; i < str.length(); i++) {
+                if ("*?[]{},\\/".indexOf(str.charAt(i)) >= 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param source the glob with the leading slash removed and the comment signs unescaped
+         * @param matchLastSegmentOnly {@code true} if only the last segment of paths will be matched
+         * @return a new {@link FastPath} or {@code null} if the given {@code source} does not have any of the
+         *         supported shapes
+         */
+        static FastPath of(String source, boolean matchLastSegmentOnly) {
+            if (source.isEmpty()) {
+                return null;
+            } else if (isPlain(source)) {
+                return new Names(Collections.singleton(source), !matchLastSegmentOnly);
+            } else if (source.endsWith("/**")) {
+                final String prefix = source.substring(0, source.length() - 2);
+                for (String segment : prefix.substring(0, prefix.length() - 1).split("/", -1)) {
+                    if (segment.isEmpty() || !isPlain(segment)) {
+                        return null;
+                    }
+                }
+                return new Prefix(prefix);
+            } else if (!matchLastSegmentOnly) {
+                return null;
+            } else if ("*".equals(source)) {
+                return ANY;
+            } else if (source.startsWith("*.") && isPlain(source.substring(2))) {
+                return new Suffixes(new String[] { source.substring(1) });
+            } else if (source.length() > 2 && source.charAt(0) == '{' && source.charAt(source.length() - 1) == '}'
+                    && source.indexOf(',') >= 0) {
+                final String[] choices = source.substring(1, source.length() - 1).split(",", -1);
+                final Set<String> names = new HashSet<>();
+                final List<String> suffixes = new ArrayList<>();
+                for (String choice : choices) {
+                    if (isPlain(choice) && !choice.isEmpty()) {
+                        names.add(choice);
+                    } else if (choice.startsWith("*.") && isPlain(choice.substring(2))) {
+                        suffixes.add(choice.substring(1));
+                    } else {
+                        return null;
+                    }
+                }
+                if (suffixes.isEmpty()) {
+                    return new Names(names, !matchLastSegmentOnly);
+                } else if (names.isEmpty()) {
+                    return new Suffixes(suffixes.toArray(new String[0]));
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param prefix the beginning of some paths, ending with a slash {@code /}
+         * @return {@code false} if no path starting with the given {@code prefix} can match; {@code true} otherwise
+         */
+        boolean canMatchAfter(String prefix) {
+            return true;
+        }
+
+        /**
+         * @return the exact names matched by this {@link FastPath} or {@code null} if this is not a names matcher
+         */
+        String[] getNames() {
+            return null;
+        }
+
+        /**
+         * @return the suffixes matched by this {@link FastPath}, each starting with a dot, or {@code null} if this is
+         *         not a suffix matcher
+         */
+        String[] getSuffixes() {
+            return null;
+        }
+
+        /**
+         * @return {@code true} if this {@link FastPath} matches any input; {@code false} otherwise
+         */
+        boolean isAny() {
+            return false;
+        }
+
+        /**
+         * @param path the path to match
+         * @param start the index of the first character of the last segment or of the whole path to match
+         * @return {@code true} if the given {@code path} matches from {@code start} to its end; {@code false}
+         *         otherwise
+         */
+        abstract boolean match(String path, int start);
+    }
+
+    /**
+     * The matcher of a {@link Glob} having no {@link FastPath} along with the result of its validation. Created on
+     * demand by {@link Glob#getCompiled()}.
+     */
+    private static class Compiled {
+
+        /**
+         * @param source the glob string after the preprocessing done in {@link Glob#Glob(String)}
+         * @return a new {@link Compiled}
+         */
+        private static Compiled of(String source) {
+            final List<int[]> ranges = new ArrayList<int[]>();
+            final StringBuilder regex = new StringBuilder(source.length());
+            convertGlobToRegEx(source, ranges, regex);
+            final String regexString = regex.toString();
+            /*
+             * The states of the automaton are built on the first match. A successful parse implies a valid regex, so
+             * the Pattern needs to be compiled only if the automaton cannot be used
+             */
+            final GlobAutomaton automaton = GlobAutomaton.compile(regexString, ranges);
+            if (automaton != null) {
+                return new Compiled(automaton, null, null, ranges);
+            }
+            try {
+                return new Compiled(null, Pattern.compile(regexString), null, ranges);
+            } catch (PatternSyntaxException e) {
+                return new Compiled(null, null, e, ranges);
+            }
+        }
+
+        /** The automaton to match with or {@code null} if {@link #regex} needs to be used */
+        private final GlobAutomaton automaton;
+        private final PatternSyntaxException error;
+        private final List<int[]> ranges;
+        private final Pattern regex;
+
+        private Compiled(GlobAutomaton automaton, Pattern regex, PatternSyntaxException error, List<int[]> ranges) {
+            super();
+            this.automaton = automaton;
+            this.regex = regex;
+            this.error = error;
+            this.ranges = ranges;
+        }
+    }
+
+    /** The {@link Compiled} of the {@link Glob}s having a {@link FastPath} */
+    private static final Compiled FAST_PATH = new Compiled(null, null, null, Collections.<int[]> emptyList());
+
     private static final int MAX_GLOB_LENGTH = 4096;
-    private final PatternSyntaxException error;
-    private final List<int[]> ranges;
-    private final Pattern regex;
+
+    /** The maximal number of {@link Glob}s kept by {@link #of(String)} */
+    private static final int POOL_SIZE = 1024;
+
+    /** The {@link Glob}s returned by {@link #of(String)} in the least recently used first order */
+    private static final Map<String, Glob> POOL = new LinkedHashMap<String, Glob>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Glob> eldest) {
+            return size() > POOL_SIZE;
+        }
+    };
+
+    /**
+     * Returns a {@link Glob} for the given {@code source}, reusing an equal instance created by a previous call of this
+     * method if possible. {@link Glob}s are immutable and the same glob strings tend to be repeated across many
+     * {@code .editorconfig} files, so the sharing saves both the compilation time and memory. The pool of reusable
+     * instances is bounded and safe to access from concurrent threads.
+     *
+     * @param source the glob string
+     * @return a {@link Glob} equal to {@code new Glob(source)}
+     * @since 0.2.2
+     */
+    public static Glob of(String source) {
+        synchronized (POOL) {
+            final Glob result = POOL.get(source);
+            if (result != null) {
+                return result;
+            }
+        }
+        /* Compile outside of the lock; a concurrently created equal instance wins */
+        final Glob glob = new Glob(source);
+        synchronized (POOL) {
+            final Glob concurrent = POOL.get(source);
+            if (concurrent != null) {
+                return concurrent;
+            }
+            POOL.put(source, glob);
+        }
+        return glob;
+    }
+
+    /**
+     * Created lazily by {@link #getCompiled()} unless known upfront; a benign race can create more than one instance
+     */
+    private volatile Compiled compiled;
+    /** The matcher for simple globs or {@code null} if the {@link #compiled} matcher needs to be used */
+    private final FastPath fastPath;
+    /**
+     * {@code true} if the {@link #pattern} is known to be valid without compiling it, see
+     * {@link #isCertainlyValid(String)}
+     */
+    private final boolean knownValid;
+    /** The preprocessed {@link #source} to compile */
+    private final String pattern;
     private final String source;
     private final boolean matchLastSegmentOnly;
     static final Pattern ESCAPED_COMMENT_SIGNS = Pattern.compile("\\\\([#;])");
 
     public Glob(String source) {
         this.source = source;
-        this.ranges = new ArrayList<int[]>();
         if (source.length() > MAX_GLOB_LENGTH) {
-            this.regex = null;
-            this.error = new PatternSyntaxException(
-                    "Glob length exceeds the maximal allowed length of " + MAX_GLOB_LENGTH + " characters", source,
-                    MAX_GLOB_LENGTH);
+            this.fastPath = null;
+            this.pattern = null;
+            this.compiled = new Compiled(null, null,
+                    new PatternSyntaxException(
+                            "Glob length exceeds the maximal allowed length of " + MAX_GLOB_LENGTH + " characters",
+                            source, MAX_GLOB_LENGTH),
+                    Collections.<int[]> emptyList());
             this.matchLastSegmentOnly = false;
+            this.knownValid = false;
         } else {
             source = ESCAPED_COMMENT_SIGNS.matcher(source).replaceAll("$1");
             final int slashPos = source.indexOf('/');
@@ -72,18 +403,69 @@ public class Glob {
                 source = (slashPos == 0 ? source.substring(1) : source);
             }
             this.matchLastSegmentOnly = slashPos < 0 && doubleAsteriskPos < 0;
-            final StringBuilder regex = new StringBuilder(source.length());
-            convertGlobToRegEx(source, ranges, regex);
-            PatternSyntaxException err = null;
-            Pattern pat = null;
-            try {
-                pat = Pattern.compile(regex.toString());
-            } catch (PatternSyntaxException e) {
-                err = e;
-            }
-            this.error = err;
-            this.regex = pat;
+            this.pattern = source;
+            this.fastPath = FastPath.of(source, matchLastSegmentOnly);
+            /* The simple shapes always translate to valid regular expressions; the others are compiled on demand */
+            this.compiled = fastPath != null ? FAST_PATH : null;
+            this.knownValid = fastPath != null || isCertainlyValid(source);
+        }
+    }
+
+    /**
+     * Tells whether any path under the given {@code directory} can match this {@link Glob}. Tree walkers can use this
+     * to skip whole subtrees. The answer errs on the side of {@code true}: a {@code true} result does not guarantee
+     * that any path under the given {@code directory} actually matches.
+     *
+     * @param directory
+     *        a slash ({@code /}) separated directory path relative to the directory of the {@code .editorconfig} file
+     *        this {@link Glob} was defined in
+     * @return {@code false} if no path under the given {@code directory} can match this {@link Glob}; {@code true}
+     *         otherwise
+     * @since 0.2.2
+     */
+    public boolean canMatchUnder(Ec4jPath directory) {
+        return canMatchUnder(directory.toString(), 0);
+    }
+
+    /**
+     * Same as {@link #canMatchUnder(Ec4jPath)} but the relative directory path is the part of the given
+     * {@code directoryPath} starting at the given {@code start} index.
+     *
+     * @param directoryPath
+     *        a slash ({@code /}) separated directory path
+     * @param start
+     *        the index of the first character of the relative directory path in the given {@code directoryPath}
+     * @return {@code false} if no path under the relative directory can match this {@link Glob}; {@code true}
+     *         otherwise
+     * @since 0.2.2
+     */
+    public boolean canMatchUnder(String directoryPath, int start) {
+        if (start >= directoryPath.length()) {
+            return isValid();
         }
+        return canMatchAfter(directoryPath.substring(start) + '/');
+    }
+
+    /**
+     * @param prefix
+     *        a relative directory path ending with a slash ({@code /})
+     * @return {@code false} if no path starting with the given {@code prefix} can match this {@link Glob};
+     *         {@code true} otherwise
+     */
+    boolean canMatchAfter(String prefix) {
+        if (!isValid()) {
+            return false;
+        } else if (matchLastSegmentOnly) {
+            return true;
+        } else if (fastPath != null) {
+            return fastPath.canMatchAfter(prefix);
+        }
+        final Compiled c = getCompiled();
+        if (c.automaton != null) {
+            return c.automaton.canMatchAfter(prefix);
+        }
+        final Matcher matcher = c.regex.matcher(prefix);
+        return matcher.matches() || matcher.hitEnd();
     }
 
     @Override
@@ -104,11 +486,41 @@ public class Glob {
     }
 
     /**
+     * @return the automaton that can be used to match this {@link Glob} or {@code null} if this {@link Glob} can only
+     *         be matched via {@link #match(Ec4jPath)}
+     */
+    GlobAutomaton getAutomaton() {
+        return fastPath != null ? null : getCompiled().automaton;
+    }
+
+    /**
+     * @return the {@link #compiled} matcher, creating it if necessary
+     */
+    private Compiled getCompiled() {
+        Compiled result = compiled;
+        if (result == null) {
+            result = Compiled.of(pattern);
+            compiled = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the matcher for simple globs or {@code null} if this {@link Glob} does not have any of the simple shapes
+     */
+    FastPath getFastPath() {
+        return fastPath;
+    }
+
+    /**
+     * Note that this method compiles this {@link Glob} unless it was compiled already or unless a quick check of the
+     * {@link #source} reveals that it is valid.
+     *
      * @return the {@link PatternSyntaxException} that was thrown when parsing the {@link #source} or {@code null} when
      *         no {@link PatternSyntaxException} was thrown.
      */
     public PatternSyntaxException getError() {
-        return error;
+        return knownValid ? null : getCompiled().error;
     }
 
     /**
@@ -130,8 +542,24 @@ public class Glob {
         return source.isEmpty();
     }
 
+    /**
+     * @return {@code true} if this {@link Glob} is matched against the last segment of a path; {@code false} if it is
+     *         matched against the whole path
+     */
+    boolean isMatchLastSegmentOnly() {
+        return matchLastSegmentOnly;
+    }
+
+    /**
+     * @return {@code true} if this {@link Glob} was compiled already; {@code false} otherwise
+     */
+    boolean isCompiled() {
+        final Compiled c = compiled;
+        return c != null && c != FAST_PATH;
+    }
+
     public boolean isValid() {
-        return error == null;
+        return knownValid || getCompiled().error == null;
     }
 
     /**
@@ -147,20 +575,48 @@ public class Glob {
      * @return {@code true} if the given {@code filePath} matches; {@code false} otherwise
      */
     public boolean match(Ec4jPath filePath) {
+        return match(filePath.toString(), 0);
+    }
+
+    /**
+     * Matches a slash ({@code /}) separated path against this {@link Glob}. Only the part of the given {@code path}
+     * starting at the given {@code start} index is matched so that a path relative to the directory of the
+     * {@code .editorconfig} file this {@link Glob} was defined in can be matched without creating a new
+     * {@link Ec4jPath} or a substring.
+     *
+     * @param path
+     *        a slash ({@code /}) separated file path
+     * @param start
+     *        the index of the first character of the relative path in the given {@code path}
+     * @return {@code true} if the relative path matches; {@code false} otherwise
+     * @since 0.2.2
+     */
+    public boolean match(String path, int start) {
         if (!isValid()) {
             return false;
         }
 
-        final Matcher matcher = regex.matcher(matchLastSegmentOnly ? filePath.getLastSegment() : filePath.toString());
+        if (matchLastSegmentOnly) {
+            start = Math.max(start, path.lastIndexOf('/') + 1);
+        }
+        if (fastPath != null) {
+            return fastPath.match(path, start);
+        }
+        final Compiled c = getCompiled();
+        if (c.automaton != null) {
+            return c.automaton.matches(path, start);
+        }
+        final Matcher matcher = c.regex.matcher(path).region(start, path.length());
         if (matcher.matches()) {
             for (int i = 0; i < matcher.groupCount(); i++) {
-                final int[] range = ranges.get(i);
-                final String numberString = matcher.group(i + 1);
-                if (numberString == null || numberString.startsWith("0")) {
+                final int[] range = c.ranges.get(i);
+                final int groupStart = matcher.start(i + 1);
+                if (groupStart < 0 || path.charAt(groupStart) == '0') {
                     return false;
                 }
-                int number = Integer.parseInt(numberString);
-                if (number < range[0] || number > range[1]) {
+                final int groupEnd = matcher.end(i + 1);
+                if (compareNumber(path, groupStart, groupEnd, range[0]) < 0
+                        || compareNumber(path, groupStart, groupEnd, range[1]) > 0) {
                     return false;
                 }
             }
@@ -272,6 +728,94 @@ public class Glob {
         }
     }
 
+    /**
+     * Compares a non-negative decimal number having no leading zeros with the given {@code bound} without parsing the
+     * number so that numbers greater than {@link Integer#MAX_VALUE} are supported.
+     *
+     * @param input
+     *        the string containing the number
+     * @param start
+     *        the index of the first digit of the number in {@code input}
+     * @param end
+     *        the index after the last digit of the number in {@code input}
+     * @param bound
+     *        the number to compare with
+     * @return a negative integer, zero, or a positive integer as the number is less than, equal to, or greater than the
+     *         {@code bound}
+     */
+    static int compareNumber(CharSequence input, int start, int end, int bound) {
+        if (bound < 0) {
+            return 1;
+        }
+        int boundLength = 1;
+        int divisor = 1;
+        while (bound / divisor >= 10) {
+            divisor *= 10;
+            boundLength++;
+        }
+        final int length = end - start;
+        if (length != boundLength) {
+            return length - boundLength;
+        }
+        for (int i = start; i < end; i++) {
+            final int digit = input.charAt(i) - '0';
+            final int boundDigit = bound / divisor % 10;
+            if (digit != boundDigit) {
+                return digit - boundDigit;
+            }
+            divisor /= 10;
+        }
+        return 0;
+    }
+
+    /**
+     * A quick syntax check that does not translate the given glob string to a regular expression. It accepts the glob
+     * strings having no backslash, having properly nested braces and having only bracket expressions consisting of
+     * letters and digits, optionally negated via {@code !} or {@code ^}. {@link #convertGlobToRegEx(String, List,
+     * StringBuilder)} always produces a valid regular expression out of such glob strings.
+     *
+     * @param globString
+     *        the glob string to check after the preprocessing done in {@link Glob#Glob(String)}
+     * @return {@code true} if the given {@code globString} is certainly valid; {@code false} if it needs to be compiled
+     *         to find out
+     */
+    static boolean isCertainlyValid(String globString) {
+        final int len = globString.length();
+        int braceDepth = 0;
+        for (int i = 0; i < len; i++) {
+            switch (globString.charAt(i)) {
+                case '\\':
+                case ']':
+                    return false;
+                case '{':
+                    braceDepth++;
+                    break;
+                case '}':
+                    if (--braceDepth < 0) {
+                        return false;
+                    }
+                    break;
+                case '[':
+                    int j = i + 1;
+                    if (j < len && (globString.charAt(j) == '!' || globString.charAt(j) == '^')) {
+                        j++;
+                    }
+                    final int contentStart = j;
+                    while (j < len && Character.isLetterOrDigit(globString.charAt(j))) {
+                        j++;
+                    }
+                    if (j == contentStart || j == len || globString.charAt(j) != ']') {
+                        return false;
+                    }
+                    i = j;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return braceDepth == 0;
+    }
+
     /**
      * @param globString
      *        the glob string to check
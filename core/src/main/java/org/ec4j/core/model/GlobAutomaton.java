@@ -0,0 +1,945 @@
+/**
+ * Copyright (c) 2017 Angelo Zerr and other contributors as
+ * indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ec4j.core.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A nondeterministic finite automaton over code points able to match the regular expressions produced by
+ * {@link Glob#convertGlobToRegEx(String, List, StringBuilder)} in linear time. The automaton is simulated using bit
+ * sets so that {@link #matches(String)} does not allocate for automata having up to 64 states. Several
+ * automata can be combined into a single one using {@link #union(List)} so that they can be matched in a single pass.
+ * <p>
+ * Only a subset of the {@link java.util.regex.Pattern} syntax is supported: literals, escaped literals, {@code .},
+ * simple character classes, non-capturing groups, alternations, the {@code *} quantifier and the {@code (\d+)}
+ * groups of numeric ranges. {@link #compile(String, List)} returns {@code null} for regular expressions using
+ * anything else so that the caller can fall back to {@link java.util.regex.Pattern}. The caller is also responsible
+ * for checking the validity of the regular expression with {@link java.util.regex.Pattern#compile(String)}
+ * beforehand.
+ */
+class GlobAutomaton {
+
+    /**
+     * A node of the syntax tree built by {@link Parser}.
+     */
+    private abstract static class Node {
+        /**
+         * Adds the states of this {@link Node} to the given {@link Builder}.
+         *
+         * @param builder the {@link Builder} to add the states to
+         * @param next the state to continue with once this {@link Node} is matched
+         * @return the first state of this {@link Node}
+         */
+        abstract int compile(Builder builder, int next);
+    }
+
+    /** A sequence of {@link Node}s */
+    private static class Sequence extends Node {
+        private final List<Node> nodes = new ArrayList<>();
+
+        @Override
+        int compile(Builder builder, int next) {
+            int result = next;
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                result = nodes.get(i).compile(builder, result);
+            }
+            return result;
+        }
+    }
+
+    /** An alternation of {@link Node}s */
+    private static class Alternation extends Node {
+        private final List<Node> alternatives = new ArrayList<>();
+
+        @Override
+        int compile(Builder builder, int next) {
+            final int[] starts = new int[alternatives.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = alternatives.get(i).compile(builder, next);
+            }
+            return builder.split(starts);
+        }
+    }
+
+    /** A {@link Node} repeated zero or more times */
+    private static class Star extends Node {
+        private final Node node;
+
+        private Star(Node node) {
+            super();
+            this.node = node;
+        }
+
+        @Override
+        int compile(Builder builder, int next) {
+            final int loop = builder.split(-1, next);
+            builder.epsilons.set(loop, new int[] { node.compile(builder, loop), next });
+            return loop;
+        }
+    }
+
+    /** A single code point matching some condition */
+    private static class CodePoint extends Node {
+        private final int kind;
+        private final int[] ranges;
+
+        private CodePoint(int kind, int[] ranges) {
+            super();
+            this.kind = kind;
+            this.ranges = ranges;
+        }
+
+        @Override
+        int compile(Builder builder, int next) {
+            return builder.consume(kind, ranges, next);
+        }
+    }
+
+    /**
+     * The decimal numbers having no leading zeros within a range of integers. This is an equivalent of a {@code (\d+)}
+     * group whose value is checked against the range afterwards, like {@link Glob#match(Ec4jPath)} does when falling
+     * back to {@link java.util.regex.Pattern}. Zero and negative numbers never match.
+     */
+    private static class NumericRange extends Node {
+        private static final int[] DIGITS = new int[] { '0', '9' };
+
+        private static Node digit(char first, char last) {
+            return new CodePoint(IN_CLASS, new int[] { first, last });
+        }
+
+        private static String repeat(char c, int count) {
+            final char[] result = new char[count];
+            Arrays.fill(result, c);
+            return new String(result);
+        }
+
+        /**
+         * @param min the smallest number to match as a string
+         * @param max the greatest number to match as a string having the same length as {@code min}
+         * @return a new {@link Node} matching the numbers from {@code min} to {@code max}, both inclusive
+         */
+        private static Node sameLength(String min, String max) {
+            final Sequence result = new Sequence();
+            int i = 0;
+            final int len = min.length();
+            /* The common prefix */
+            while (i < len && min.charAt(i) == max.charAt(i)) {
+                result.nodes.add(digit(min.charAt(i), min.charAt(i)));
+                i++;
+            }
+            if (i == len) {
+                return result;
+            }
+            final char minDigit = min.charAt(i);
+            final char maxDigit = max.charAt(i);
+            final String minRest = min.substring(i + 1);
+            final String maxRest = max.substring(i + 1);
+            final String nines = repeat('9', minRest.length());
+            final String zeros = repeat('0', minRest.length());
+            final Alternation alternation = new Alternation();
+            char middleFirst = (char) (minDigit + 1);
+            char middleLast = (char) (maxDigit - 1);
+            if (minRest.equals(zeros)) {
+                middleFirst = minDigit;
+            } else {
+                final Sequence low = new Sequence();
+                low.nodes.add(digit(minDigit, minDigit));
+                low.nodes.add(sameLength(minRest, nines));
+                alternation.alternatives.add(low);
+            }
+            if (maxRest.equals(nines)) {
+                middleLast = maxDigit;
+            } else {
+                final Sequence high = new Sequence();
+                high.nodes.add(digit(maxDigit, maxDigit));
+                high.nodes.add(sameLength(zeros, maxRest));
+                alternation.alternatives.add(high);
+            }
+            if (middleFirst <= middleLast) {
+                final Sequence middle = new Sequence();
+                middle.nodes.add(digit(middleFirst, middleLast));
+                for (int j = 0; j < minRest.length(); j++) {
+                    middle.nodes.add(new CodePoint(IN_CLASS, DIGITS));
+                }
+                alternation.alternatives.add(middle);
+            }
+            result.nodes.add(alternation);
+            return result;
+        }
+
+        private final long max;
+        private final long min;
+
+        private NumericRange(int[] range) {
+            super();
+            this.min = Math.max(range[0], 1);
+            this.max = range[1];
+        }
+
+        @Override
+        int compile(Builder builder, int next) {
+            if (min > max) {
+                /* An empty class never matches */
+                return builder.consume(IN_CLASS, new int[0], next);
+            }
+            /* One alternative per count of digits */
+            final Alternation alternation = new Alternation();
+            long lengthMin = min;
+            while (lengthMin <= max) {
+                long lengthMax = 9;
+                while (lengthMax < lengthMin) {
+                    lengthMax = lengthMax * 10 + 9;
+                }
+                alternation.alternatives
+                        .add(sameLength(Long.toString(lengthMin), Long.toString(Math.min(lengthMax, max))));
+                lengthMin = lengthMax + 1;
+            }
+            return alternation.compile(builder, next);
+        }
+    }
+
+    /**
+     * The literal strings that each input matching some {@link Node} must contain. Checking them is much cheaper than
+     * running the automaton and most inputs fail most of the globs.
+     */
+    private static class RequiredLiterals {
+
+        /** Requires nothing, i.e. {@link #mayMatch(String, int)} always returns {@code true} */
+        private static final RequiredLiterals NONE = new RequiredLiterals("", "", "");
+
+        /**
+         * Adds the {@link Node}s of the given {@code node} to {@code result}, inlining the nested {@link Sequence}s.
+         */
+        private static void flatten(Node node, List<Node> result) {
+            if (node instanceof Sequence) {
+                for (Node child : ((Sequence) node).nodes) {
+                    flatten(child, result);
+                }
+            } else {
+                result.add(node);
+            }
+        }
+
+        /**
+         * @param root the parsed regular expression
+         * @return a new {@link RequiredLiterals} or {@link #NONE} if no literal is required
+         */
+        static RequiredLiterals of(Node root) {
+            final List<Node> nodes = new ArrayList<>();
+            flatten(root, nodes);
+            final List<String> runs = new ArrayList<>();
+            final StringBuilder run = new StringBuilder();
+            /* Whether the first and the last run are at the very beginning and at the very end respectively */
+            boolean anchoredStart = false;
+            boolean anchoredEnd = false;
+            for (int i = 0; i < nodes.size(); i++) {
+                final Node node = nodes.get(i);
+                if (node instanceof CodePoint && ((CodePoint) node).kind == LITERAL) {
+                    if (i == 0) {
+                        anchoredStart = true;
+                    }
+                    run.appendCodePoint(((CodePoint) node).ranges[0]);
+                    anchoredEnd = i == nodes.size() - 1;
+                } else if (run.length() > 0) {
+                    runs.add(run.toString());
+                    run.setLength(0);
+                }
+            }
+            if (run.length() > 0) {
+                runs.add(run.toString());
+            }
+            if (runs.isEmpty()) {
+                return NONE;
+            }
+            if (runs.size() == 1 && anchoredStart && anchoredEnd) {
+                /* All literal */
+                return new RequiredLiterals(runs.get(0), "", "");
+            }
+            final String prefix = anchoredStart ? runs.get(0) : "";
+            final String suffix = anchoredEnd ? runs.get(runs.size() - 1) : "";
+            String infix = "";
+            for (int i = anchoredStart ? 1 : 0; i < runs.size() - (anchoredEnd ? 1 : 0); i++) {
+                if (runs.get(i).length() > infix.length()) {
+                    infix = runs.get(i);
+                }
+            }
+            if (prefix.isEmpty() && infix.isEmpty() && suffix.isEmpty()) {
+                return NONE;
+            }
+            return new RequiredLiterals(prefix, infix, suffix);
+        }
+
+        /** A literal somewhere between {@link #prefix} and {@link #suffix} */
+        private final String infix;
+        private final String prefix;
+        private final String suffix;
+
+        private RequiredLiterals(String prefix, String infix, String suffix) {
+            super();
+            this.prefix = prefix;
+            this.infix = infix;
+            this.suffix = suffix;
+        }
+
+        /**
+         * @param input the input to check
+         * @param start the index of the first code unit of the {@code input} to check
+         * @return {@code false} if the {@code input} from {@code start} to its end cannot match for sure;
+         *         {@code true} otherwise
+         */
+        boolean mayMatch(String input, int start) {
+            final int end = input.length() - suffix.length();
+            if (end - start < prefix.length() + infix.length() || !input.startsWith(prefix, start)
+                    || !input.startsWith(suffix, end)) {
+                return false;
+            }
+            if (infix.isEmpty()) {
+                return true;
+            }
+            final int infixPos = input.indexOf(infix, start + prefix.length());
+            return infixPos >= 0 && infixPos + infix.length() <= end;
+        }
+    }
+
+    /**
+     * A recursive descent parser of the supported subset of the {@link java.util.regex.Pattern} syntax.
+     */
+    private static class Parser {
+        private int pos;
+        /** The numeric ranges of the capturing groups of {@link #regex} */
+        private final List<int[]> ranges;
+        private int rangeIndex;
+        private final String regex;
+        private boolean unsupported;
+
+        private Parser(String regex, List<int[]> ranges) {
+            super();
+            this.regex = regex;
+            this.ranges = ranges;
+        }
+
+        private boolean atEnd() {
+            return pos >= regex.length();
+        }
+
+        /**
+         * @param cp the code point to check
+         * @return {@code true} if the given {@code cp} has a special meaning outside of character classes
+         */
+        private static boolean isMeta(int cp) {
+            return "\\^$.|?*+()[{".indexOf(cp) >= 0;
+        }
+
+        private int escaped() {
+            if (atEnd()) {
+                unsupported = true;
+                return -1;
+            }
+            final int cp = regex.codePointAt(pos);
+            pos += Character.charCount(cp);
+            if (cp == 'n') {
+                return '\n';
+            } else if (cp < 128 && Character.isLetterOrDigit(cp)) {
+                /* Escaped ASCII letters and digits have special meanings */
+                unsupported = true;
+                return -1;
+            }
+            return cp;
+        }
+
+        private Node parseAlternation() {
+            final Alternation result = new Alternation();
+            result.alternatives.add(parseSequence());
+            while (!unsupported && !atEnd() && regex.charAt(pos) == '|') {
+                pos++;
+                result.alternatives.add(parseSequence());
+            }
+            return result.alternatives.size() == 1 ? result.alternatives.get(0) : result;
+        }
+
+        private Node parseAtom() {
+            final int cp = regex.codePointAt(pos);
+            pos += Character.charCount(cp);
+            switch (cp) {
+                case '\\':
+                    final int escaped = escaped();
+                    return new CodePoint(LITERAL, new int[] { escaped, escaped });
+                case '.':
+                    return new CodePoint(ANY, null);
+                case '[':
+                    return parseClass();
+                case '(':
+                    if (regex.startsWith("\\d+)", pos) && rangeIndex < ranges.size()) {
+                        /* capturing groups are used only for numeric ranges */
+                        pos += 4;
+                        return new NumericRange(ranges.get(rangeIndex++));
+                    } else if (!regex.startsWith("?:", pos)) {
+                        unsupported = true;
+                        return null;
+                    }
+                    pos += 2;
+                    final Node group = parseAlternation();
+                    if (atEnd() || regex.charAt(pos) != ')') {
+                        unsupported = true;
+                        return null;
+                    }
+                    pos++;
+                    return group;
+                default:
+                    if (isMeta(cp)) {
+                        unsupported = true;
+                        return null;
+                    }
+                    return new CodePoint(LITERAL, new int[] { cp, cp });
+            }
+        }
+
+        /**
+         * Parses a character class; the opening bracket is consumed already. Intersections, unions and nested
+         * classes are not supported.
+         *
+         * @return a new {@link CodePoint}
+         */
+        private Node parseClass() {
+            boolean negated = false;
+            if (!atEnd() && regex.charAt(pos) == '^') {
+                negated = true;
+                pos++;
+            }
+            final List<Integer> ranges = new ArrayList<>();
+            boolean first = true;
+            while (!unsupported) {
+                if (atEnd()) {
+                    unsupported = true;
+                    break;
+                }
+                final char c = regex.charAt(pos);
+                if (c == ']' && !first) {
+                    pos++;
+                    break;
+                } else if (c == '-') {
+                    /* A literal dash is supported only at the very beginning and at the very end */
+                    if (first || regex.startsWith("-]", pos)) {
+                        pos++;
+                        ranges.add((int) '-');
+                        ranges.add((int) '-');
+                        first = false;
+                        continue;
+                    }
+                    unsupported = true;
+                    break;
+                }
+                final int start = parseClassCodePoint();
+                int end = start;
+                if (!atEnd() && regex.charAt(pos) == '-' && !regex.startsWith("-]", pos)) {
+                    pos++;
+                    end = parseClassCodePoint();
+                    if (end < start || (!atEnd() && regex.charAt(pos) == '-' && !regex.startsWith("-]", pos))) {
+                        /* An illegal range or a range followed by a dash */
+                        unsupported = true;
+                    }
+                }
+                ranges.add(start);
+                ranges.add(end);
+                first = false;
+            }
+            if (unsupported) {
+                return null;
+            }
+            final int[] result = new int[ranges.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = ranges.get(i);
+            }
+            return new CodePoint(negated ? NOT_IN_CLASS : IN_CLASS, result);
+        }
+
+        private int parseClassCodePoint() {
+            if (atEnd()) {
+                unsupported = true;
+                return -1;
+            }
+            final int cp = regex.codePointAt(pos);
+            pos += Character.charCount(cp);
+            switch (cp) {
+                case '\\':
+                    return escaped();
+                case '[':
+                case ']':
+                case '&':
+                case '-':
+                    unsupported = true;
+                    return -1;
+                default:
+                    return cp;
+            }
+        }
+
+        private Node parseSequence() {
+            final Sequence result = new Sequence();
+            while (!unsupported && !atEnd() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                Node atom = parseAtom();
+                if (!unsupported && !atEnd() && regex.charAt(pos) == '*') {
+                    pos++;
+                    atom = new Star(atom);
+                }
+                result.nodes.add(atom);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Collects the states of a {@link GlobAutomaton} under construction.
+     */
+    private static class Builder {
+        /** The outgoing epsilon transitions of the split states or {@code null} for the other states */
+        private final List<int[]> epsilons = new ArrayList<>();
+        private final List<Integer> kinds = new ArrayList<>();
+        private final List<Integer> nexts = new ArrayList<>();
+        private final List<int[]> ranges = new ArrayList<>();
+
+        private int add(int kind, int[] range, int next, int[] epsilon) {
+            kinds.add(kind);
+            ranges.add(range);
+            nexts.add(next);
+            epsilons.add(epsilon);
+            return kinds.size() - 1;
+        }
+
+        int consume(int kind, int[] range, int next) {
+            return add(kind, range, next, null);
+        }
+
+        int split(int... targets) {
+            return add(SPLIT, null, -1, targets);
+        }
+
+        /**
+         * @param state the state to start from
+         * @param visited the states visited so far
+         * @param result the list to add the reachable consuming and {@link #MATCH} states to
+         */
+        private void closure(int state, boolean[] visited, List<Integer> result) {
+            if (visited[state]) {
+                return;
+            }
+            visited[state] = true;
+            final int[] targets = epsilons.get(state);
+            if (targets == null) {
+                result.add(state);
+            } else {
+                for (int target : targets) {
+                    closure(target, visited, result);
+                }
+            }
+        }
+
+        private int[] closure(int state) {
+            final List<Integer> list = new ArrayList<>();
+            closure(state, new boolean[kinds.size()], list);
+            final int[] result = new int[list.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = list.get(i);
+            }
+            return result;
+        }
+
+        /**
+         * @param roots the alternatives to build an automaton for
+         * @return new {@link States} matching all given alternatives in parallel
+         */
+        States build(List<Node> roots) {
+            final int[] matchStates = new int[roots.size()];
+            final int[] starts = new int[roots.size()];
+            for (int i = 0; i < starts.length; i++) {
+                matchStates[i] = add(MATCH, null, -1, null);
+                starts[i] = roots.get(i).compile(this, matchStates[i]);
+            }
+            final int start = starts.length == 1 ? starts[0] : split(starts);
+            final int stateCount = kinds.size();
+            final int[][] closures = new int[stateCount][];
+            for (int i = 0; i < stateCount; i++) {
+                if (epsilons.get(i) == null && nexts.get(i) >= 0) {
+                    closures[i] = closure(nexts.get(i));
+                }
+            }
+            final int[] kindArray = new int[stateCount];
+            for (int i = 0; i < stateCount; i++) {
+                kindArray[i] = kinds.get(i);
+            }
+            return new States(kindArray, ranges.toArray(new int[stateCount][]), matchStates, closure(start),
+                    closures);
+        }
+    }
+
+    /**
+     * The states of a {@link GlobAutomaton} and their transitions.
+     */
+    private static class States {
+
+        /**
+         * Two bit sets per thread used by {@link #runLarge(CharSequence, int)}; grown as needed and shared by all
+         * {@link States}
+         */
+        private static final ThreadLocal<long[][]> SCRATCH = new ThreadLocal<long[][]>() {
+            @Override
+            protected long[][] initialValue() {
+                return new long[2][0];
+            }
+        };
+
+        /** The epsilon closures of the successors of the consuming states; {@code null} for the other states */
+        private final int[][] closures;
+        /** The state kinds such as {@link #LITERAL} */
+        private final int[] kinds;
+        /** The {@link #MATCH} states of the alternatives */
+        private final int[] matchStates;
+        /** The inclusive code point ranges of the consuming states */
+        private final int[][] ranges;
+        /**
+         * If the automaton has at most 64 states, the epsilon closures of the successors of the consuming states as
+         * bit sets; otherwise {@code null}
+         */
+        private final long[] smallClosures;
+        /** The epsilon closure of the start state as a bit set */
+        private final long[] startBits;
+
+        private States(int[] kinds, int[][] ranges, int[] matchStates, int[] startClosure, int[][] closures) {
+            super();
+            this.kinds = kinds;
+            this.ranges = ranges;
+            this.matchStates = matchStates;
+            this.closures = closures;
+            final int words = (kinds.length + 63) >>> 6;
+            this.startBits = toBits(startClosure, words);
+            if (words == 1) {
+                this.smallClosures = new long[kinds.length];
+                for (int i = 0; i < kinds.length; i++) {
+                    if (closures[i] != null) {
+                        this.smallClosures[i] = toBits(closures[i], 1)[0];
+                    }
+                }
+            } else {
+                this.smallClosures = null;
+            }
+        }
+
+        /**
+         * @param state the state
+         * @param cp the code point to match
+         * @return {@code true} if the given {@code state} accepts the given {@code cp}
+         */
+        private boolean accepts(int state, int cp) {
+            switch (kinds[state]) {
+                case ANY:
+                    return !isLineTerminator(cp);
+                case LITERAL:
+                    return ranges[state][0] == cp;
+                case IN_CLASS:
+                    return inRanges(ranges[state], cp);
+                case NOT_IN_CLASS:
+                    return !inRanges(ranges[state], cp);
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Runs an automaton having more than 64 states.
+         *
+         * @param input the input to match
+         * @param start the index of the first code unit of the {@code input} to match
+         * @return the active states after consuming the {@code input} from {@code start} to its end in the first
+         *         {@code startBits.length} words of the returned array; the array is reused by the next call on the
+         *         same thread and it may be longer than {@code startBits.length}
+         */
+        private long[] runLarge(CharSequence input, int start) {
+            final int words = startBits.length;
+            final long[][] scratch = SCRATCH.get();
+            if (scratch[0].length < words) {
+                scratch[0] = new long[words];
+                scratch[1] = new long[words];
+            }
+            long[] current = scratch[0];
+            long[] next = scratch[1];
+            System.arraycopy(startBits, 0, current, 0, words);
+            final int len = input.length();
+            int i = start;
+            while (i < len) {
+                final int cp = Character.codePointAt(input, i);
+                i += Character.charCount(cp);
+                Arrays.fill(next, 0, words, 0L);
+                boolean any = false;
+                for (int w = 0; w < words; w++) {
+                    long bits = current[w];
+                    while (bits != 0) {
+                        final int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        if (accepts(state, cp)) {
+                            for (int target : closures[state]) {
+                                next[target >>> 6] |= 1L << target;
+                            }
+                            any = true;
+                        }
+                    }
+                }
+                if (!any) {
+                    Arrays.fill(next, 0, words, 0L);
+                    return next;
+                }
+                final long[] swap = current;
+                current = next;
+                next = swap;
+            }
+            return current;
+        }
+
+        /**
+         * Runs an automaton having at most 64 states.
+         *
+         * @param input the input to match
+         * @param start the index of the first code unit of the {@code input} to match
+         * @return the active states after consuming the {@code input} from {@code start} to its end
+         */
+        private long runSmall(CharSequence input, int start) {
+            long current = startBits[0];
+            final int len = input.length();
+            int i = start;
+            while (i < len) {
+                final int cp = Character.codePointAt(input, i);
+                i += Character.charCount(cp);
+                long next = 0L;
+                long bits = current;
+                while (bits != 0) {
+                    final int state = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (accepts(state, cp)) {
+                        next |= smallClosures[state];
+                    }
+                }
+                if (next == 0L) {
+                    return 0L;
+                }
+                current = next;
+            }
+            return current;
+        }
+    }
+
+    /** Matches any code point except for line terminators, like {@code .} in {@link java.util.regex.Pattern} */
+    private static final int ANY = 0;
+    /** Matches the code points in {@link States#ranges} */
+    private static final int IN_CLASS = 1;
+    /** Matches a single code point */
+    private static final int LITERAL = 2;
+    /** An accepting state */
+    private static final int MATCH = 3;
+    /** Matches the code points not in {@link States#ranges} */
+    private static final int NOT_IN_CLASS = 4;
+    /** A state having epsilon transitions only */
+    private static final int SPLIT = 5;
+
+    /**
+     * Parses the given {@code regex}. The states and the required literals of the resulting {@link GlobAutomaton} are
+     * built lazily on the first match. The parser accepts only a subset of the syntax accepted by
+     * {@link java.util.regex.Pattern}, so a
+     * non-null result also proves that {@link java.util.regex.Pattern#compile(String)} would not fail for the given
+     * {@code regex}.
+     *
+     * @param regex the regular expression produced by {@link Glob#convertGlobToRegEx(String, List, StringBuilder)}
+     * @param ranges the numeric ranges produced by {@link Glob#convertGlobToRegEx(String, List, StringBuilder)}
+     * @return a new {@link GlobAutomaton} or {@code null} if the given {@code regex} uses some unsupported construct
+     */
+    static GlobAutomaton compile(String regex, List<int[]> ranges) {
+        final Parser parser = new Parser(regex, ranges);
+        final Node root = parser.parseAlternation();
+        if (parser.unsupported || !parser.atEnd()) {
+            return null;
+        }
+        return new GlobAutomaton(root, null);
+    }
+
+    /**
+     * @param automata the {@link GlobAutomaton}s created by {@link #compile(String, List)} to combine
+     * @return a new {@link GlobAutomaton} able to match all given {@code automata} in a single pass, see
+     *         {@link #matchAll(CharSequence, int, BitSet, int[], int)}
+     */
+    static GlobAutomaton union(List<GlobAutomaton> automata) {
+        final List<Node> roots = new ArrayList<>(automata.size());
+        for (GlobAutomaton automaton : automata) {
+            roots.add(automaton.root);
+        }
+        return new GlobAutomaton(null, new Builder().build(roots));
+    }
+
+    /**
+     * @param cp the code point to check
+     * @return {@code true} if {@code .} in {@link java.util.regex.Pattern} does not match the given {@code cp}
+     */
+    private static boolean isLineTerminator(int cp) {
+        return cp == '\n' || cp == '\r' || cp == '\u0085' || cp == '\u2028' || cp == '\u2029';
+    }
+
+    private static boolean inRanges(int[] ranges, int cp) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (cp >= ranges[i] && cp <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param states the states to transform
+     * @return a bit set having the bits of the given {@code states} set
+     */
+    private static long[] toBits(int[] states, int words) {
+        final long[] result = new long[words];
+        for (int state : states) {
+            result[state >>> 6] |= 1L << state;
+        }
+        return result;
+    }
+
+    /**
+     * The literals any matching input must contain; computed lazily by {@link #getRequiredLiterals()}, a benign race
+     * can compute more than one instance
+     */
+    private volatile RequiredLiterals requiredLiterals;
+    /** The parsed regular expression or {@code null} for unions */
+    private final Node root;
+    /** Built lazily by {@link #getStates()}; a benign race can build more than one instance */
+    private volatile States states;
+
+    private GlobAutomaton(Node root, States states) {
+        super();
+        this.root = root;
+        this.states = states;
+    }
+
+    /**
+     * @return the {@link RequiredLiterals} of this automaton, {@link RequiredLiterals#NONE} for unions
+     */
+    private RequiredLiterals getRequiredLiterals() {
+        RequiredLiterals result = requiredLiterals;
+        if (result == null) {
+            result = root == null ? RequiredLiterals.NONE : RequiredLiterals.of(root);
+            requiredLiterals = result;
+        }
+        return result;
+    }
+
+    private States getStates() {
+        States result = states;
+        if (result == null) {
+            result = new Builder().build(Collections.singletonList(root));
+            states = result;
+        }
+        return result;
+    }
+
+    /**
+     * @param prefix the beginning of some inputs
+     * @return {@code false} if no input longer than the given {@code prefix} and starting with it can match this
+     *         automaton; {@code true} otherwise
+     */
+    boolean canMatchAfter(String prefix) {
+        final States states = getStates();
+        final int[] matchStates = states.matchStates;
+        if (states.smallClosures != null) {
+            long bits = states.runSmall(prefix, 0);
+            for (int state : matchStates) {
+                bits &= ~(1L << state);
+            }
+            return bits != 0L;
+        } else {
+            final long[] bits = states.runLarge(prefix, 0);
+            for (int state : matchStates) {
+                bits[state >>> 6] &= ~(1L << state);
+            }
+            for (int w = 0; w < states.startBits.length; w++) {
+                if (bits[w] != 0L) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Matches the given {@code input} against all alternatives of this automaton.
+     *
+     * @param input the input to match
+     * @param start the index of the first code unit of the {@code input} to match
+     * @param result the {@link BitSet} to set the bits of the matching alternatives in
+     * @param ids the bit to set for each alternative
+     * @param offset the value to add to each of the {@code ids}
+     */
+    void matchAll(CharSequence input, int start, BitSet result, int[] ids, int offset) {
+        final States states = getStates();
+        final int[] matchStates = states.matchStates;
+        if (states.smallClosures != null) {
+            final long bits = states.runSmall(input, start);
+            for (int i = 0; i < matchStates.length; i++) {
+                if ((bits & (1L << matchStates[i])) != 0) {
+                    result.set(offset + ids[i]);
+                }
+            }
+        } else {
+            final long[] bits = states.runLarge(input, start);
+            for (int i = 0; i < matchStates.length; i++) {
+                final int state = matchStates[i];
+                if ((bits[state >>> 6] & (1L << state)) != 0) {
+                    result.set(offset + ids[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param input the input to match
+     * @return {@code true} if this automaton matches the whole {@code input}; {@code false} otherwise
+     */
+    boolean matches(String input) {
+        return matches(input, 0);
+    }
+
+    /**
+     * @param input the input to match
+     * @param start the index of the first code unit of the {@code input} to match
+     * @return {@code true} if this automaton matches the {@code input} from {@code start} to its end; {@code false}
+     *         otherwise
+     */
+    boolean matches(String input, int start) {
+        final RequiredLiterals literals = getRequiredLiterals();
+        if (literals != RequiredLiterals.NONE && !literals.mayMatch(input, start)) {
+            return false;
+        }
+        final States states = getStates();
+        final int state = states.matchStates[0];
+        if (states.smallClosures != null) {
+            return (states.runSmall(input, start) & (1L << state)) != 0;
+        } else {
+            return (states.runLarge(input, start)[state >>> 6] & (1L << state)) != 0;
+        }
+    }
+
+}
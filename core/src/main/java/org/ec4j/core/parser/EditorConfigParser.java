@@ -18,6 +18,9 @@ package org.ec4j.core.parser;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
 
 import org.ec4j.core.Resource;
 import org.ec4j.core.parser.ErrorEvent.ErrorType;
@@ -33,6 +36,7 @@ public class EditorConfigParser implements ParseContext {
     public static class Builder {
 
         private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private boolean parseUtf8Bytes = false;
 
         /**
          * Sets the buffer size
@@ -46,7 +50,23 @@ public class EditorConfigParser implements ParseContext {
         }
 
         public EditorConfigParser build() {
-            return new EditorConfigParser(bufferSize);
+            return new EditorConfigParser(bufferSize, parseUtf8Bytes);
+        }
+
+        /**
+         * When set to {@code true}, {@link EditorConfigParser#parse(Resource, EditorConfigHandler, ErrorHandler)}
+         * parses the bytes returned by {@link Resource#readUtf8Bytes()} directly instead of reading via
+         * {@link Resource#openReader()}, if the {@link Resource} supports it. The events sent to the
+         * {@link EditorConfigHandler} are the same, but the input is not decoded as a whole. The default is
+         * {@code false}.
+         *
+         * @param parseUtf8Bytes see above
+         * @return this {@link Builder}
+         * @since 0.2.2
+         */
+        public Builder parseUtf8Bytes(boolean parseUtf8Bytes) {
+            this.parseUtf8Bytes = parseUtf8Bytes;
+            return this;
         }
     }
 
@@ -61,7 +81,7 @@ public class EditorConfigParser implements ParseContext {
      * @return a new {@link EditorConfigParser} with {@link #DEFAULT_BUFFER_SIZE}
      */
     public static EditorConfigParser default_() {
-        return new EditorConfigParser(DEFAULT_BUFFER_SIZE);
+        return new EditorConfigParser(DEFAULT_BUFFER_SIZE, false);
     }
 
     private static final int DEFAULT_BUFFER_SIZE = 1024;
@@ -69,6 +89,16 @@ public class EditorConfigParser implements ParseContext {
     private EditorConfigHandler handler;
     private ErrorHandler errorHandler;
     private Reader reader;
+    /** The UTF-8 input or {@code null} if reading from {@link #reader} */
+    private ByteBuffer bytes;
+    /** The position of the next byte to read in {@link #bytes} */
+    private int bytePosition;
+    /** The position of the first byte of {@link #current} in {@link #bytes} */
+    private int currentBytePosition;
+    /** The low surrogate of a supplementary code point to return by the next {@link #readByte()} or {@code 0} */
+    private char pendingLowSurrogate;
+    /** Used to decode the captured strings out of direct {@link #bytes} */
+    private byte[] decodeBuffer;
     private final char[] buffer;
     private int bufferOffset;
     private int index;
@@ -78,7 +108,10 @@ public class EditorConfigParser implements ParseContext {
     private int last;
     private int current;
     private final StringBuilder captureBuffer;
+    /** See {@link Builder#parseUtf8Bytes(boolean)} */
+    private final boolean parseUtf8Bytes;
     private int captureStart;
+    private int byteCaptureStart;
     private boolean inSection = false;
 
     private Resource resource;
@@ -87,19 +120,23 @@ public class EditorConfigParser implements ParseContext {
      * Use the {@link #builder()} or {@link #default_()} to create new instances.
      *
      * @param bufferSize
-     * @param tolerant
+     * @param parseUtf8Bytes see {@link Builder#parseUtf8Bytes(boolean)}
      */
-    EditorConfigParser(int bufferSize) {
+    EditorConfigParser(int bufferSize, boolean parseUtf8Bytes) {
         if (bufferSize <= 0) {
             throw new IllegalArgumentException("buffersize is zero or negative");
         }
         this.buffer = new char[bufferSize];
         this.captureBuffer = new StringBuilder();
+        this.parseUtf8Bytes = parseUtf8Bytes;
     }
 
     /**
      * Reads the entire input from the {@code resource} and transforms it into a sequence of parse events which are sent
-     * to the given {@link EditorConfigHandler}.
+     * to the given {@link EditorConfigHandler}. If enabled via {@link Builder#parseUtf8Bytes(boolean)} and if the
+     * {@code resource} is able to provide its content as UTF-8 bytes (see {@link Resource#readUtf8Bytes()}), the bytes
+     * are parsed by {@link #parse(Resource, ByteBuffer, EditorConfigHandler, ErrorHandler)}; otherwise
+     * {@link Resource#openReader()} is used.
      *
      * @param resource
      *        the {@link Resource} to parse
@@ -114,6 +151,61 @@ public class EditorConfigParser implements ParseContext {
      *         {@code ParseException}s for them
      */
     public void parse(Resource resource, EditorConfigHandler handler, ErrorHandler errorHandler) throws IOException {
+        if (parseUtf8Bytes) {
+            final ByteBuffer utf8 = resource.readUtf8Bytes();
+            if (utf8 != null) {
+                parse(resource, utf8, handler, errorHandler);
+                return;
+            }
+        }
+        reset(resource, handler, errorHandler);
+        try (Reader reader = resource.openReader()) {
+            this.reader = reader;
+            readInput();
+        } finally {
+            this.reader = null;
+        }
+    }
+
+    /**
+     * Transforms the given UTF-8 encoded {@code utf8} bytes into a sequence of parse events which are sent to the
+     * given {@link EditorConfigHandler}. The events and their {@link Location}s are the same as the ones sent by
+     * {@link #parse(Resource, EditorConfigHandler, ErrorHandler)} for the same content, but the bytes are neither
+     * copied nor decoded as a whole: only the strings passed to the {@link EditorConfigHandler} are decoded.
+     *
+     * @param resource
+     *        the {@link Resource} the given {@code utf8} bytes were read from; used only for reporting
+     * @param utf8
+     *        the UTF-8 encoded content to parse from its position to its limit; any BOM must have been skipped
+     *        already; the position of the buffer is not changed
+     * @param handler
+     *        the handler to send the parse events to
+     * @param errorHandler
+     *        an {@link ErrorHandler} to notify on parse errors
+     * @throws MalformedInputException
+     *         if the given {@code utf8} bytes are not valid UTF-8
+     * @throws IOException
+     *         if the {@link EditorConfigHandler} or the {@link ErrorHandler} throw it
+     * @throws ParseException
+     *         only if the supplied {@link ErrorHandler} chooses to react on some {@link ErrorEvent} by throwing
+     *         {@code ParseException}s for them
+     * @since 0.2.2
+     */
+    public void parse(Resource resource, ByteBuffer utf8, EditorConfigHandler handler, ErrorHandler errorHandler)
+            throws IOException {
+        reset(resource, handler, errorHandler);
+        this.bytes = utf8;
+        this.bytePosition = utf8.position();
+        this.currentBytePosition = bytePosition;
+        this.pendingLowSurrogate = 0;
+        try {
+            readInput();
+        } finally {
+            this.bytes = null;
+        }
+    }
+
+    private void reset(Resource resource, EditorConfigHandler handler, ErrorHandler errorHandler) {
         this.resource = resource;
         this.handler = handler;
         this.errorHandler = errorHandler;
@@ -125,16 +217,15 @@ public class EditorConfigParser implements ParseContext {
         current = 0;
         last = -1;
         captureStart = -1;
+    }
 
-        try (Reader reader = resource.openReader()) {
-            this.reader = reader;
-            readLines();
-            if (!isEndOfText()) {
-                Location location = getLocation();
-                ErrorEvent e = new ErrorEvent(location, location, "Found unexpected character; expected end of input",
-                        ErrorType.EXPECTED_END_OF_INPUT);
-                errorHandler.error(this, e);
-            }
+    private void readInput() throws IOException {
+        readLines();
+        if (!isEndOfText()) {
+            Location location = getLocation();
+            ErrorEvent e = new ErrorEvent(location, location, "Found unexpected character; expected end of input",
+                    ErrorType.EXPECTED_END_OF_INPUT);
+            errorHandler.error(this, e);
         }
     }
 
@@ -354,6 +445,10 @@ public class EditorConfigParser implements ParseContext {
     }
 
     private void read() throws IOException {
+        if (bytes != null) {
+            readByte();
+            return;
+        }
         if (index == fill) {
             if (captureStart != -1) {
                 captureBuffer.append(buffer, captureStart, fill - captureStart);
@@ -377,8 +472,80 @@ public class EditorConfigParser implements ParseContext {
         current = buffer[index++];
     }
 
+    /**
+     * The {@link #read()} variant for {@link #bytes}. {@link #index} counts the UTF-16 code units read so far so that
+     * the {@link Location}s are the same as when reading from {@link #reader}.
+     */
+    private void readByte() throws IOException {
+        final int limit = bytes.limit();
+        if (bytePosition == limit && pendingLowSurrogate == 0) {
+            currentBytePosition = limit;
+            current = -1;
+            last = -1;
+            index++;
+            return;
+        }
+        if (current == '\n') {
+            line++;
+            lineOffset = index;
+        }
+        last = current;
+        index++;
+        if (pendingLowSurrogate != 0) {
+            current = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+            currentBytePosition = bytePosition;
+            return;
+        }
+        currentBytePosition = bytePosition;
+        final int b = bytes.get(bytePosition++);
+        if (b >= 0) {
+            current = b;
+            return;
+        }
+        final int continuationBytes;
+        final int min;
+        int cp;
+        if ((b & 0xE0) == 0xC0) {
+            continuationBytes = 1;
+            min = 0x80;
+            cp = b & 0x1F;
+        } else if ((b & 0xF0) == 0xE0) {
+            continuationBytes = 2;
+            min = 0x800;
+            cp = b & 0x0F;
+        } else if ((b & 0xF8) == 0xF0) {
+            continuationBytes = 3;
+            min = 0x10000;
+            cp = b & 0x07;
+        } else {
+            throw new MalformedInputException(1);
+        }
+        for (int i = 0; i < continuationBytes; i++) {
+            if (bytePosition == limit) {
+                throw new MalformedInputException(i + 1);
+            }
+            final int c = bytes.get(bytePosition++);
+            if ((c & 0xC0) != 0x80) {
+                throw new MalformedInputException(i + 1);
+            }
+            cp = (cp << 6) | (c & 0x3F);
+        }
+        if (cp < min || cp > Character.MAX_CODE_POINT
+                || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+            throw new MalformedInputException(continuationBytes + 1);
+        }
+        if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            current = Character.highSurrogate(cp);
+            pendingLowSurrogate = Character.lowSurrogate(cp);
+        } else {
+            current = cp;
+        }
+    }
+
     private void startCapture() {
         captureStart = index - 1;
+        byteCaptureStart = currentBytePosition;
     }
 
     private String endCapture() {
@@ -386,6 +553,10 @@ public class EditorConfigParser implements ParseContext {
     }
 
     private String endCapture(int index) {
+        if (bytes != null) {
+            captureStart = -1;
+            return decode(byteCaptureStart, currentBytePosition);
+        }
         int start = captureStart;
         int end = index - 1;
         captureStart = -1;
@@ -398,6 +569,25 @@ public class EditorConfigParser implements ParseContext {
         return new String(buffer, start, end - start);
     }
 
+    /**
+     * @param start the position of the first byte to decode in {@link #bytes}
+     * @param end the position after the last byte to decode in {@link #bytes}
+     * @return the decoded {@link String}
+     */
+    private String decode(int start, int end) {
+        final int len = end - start;
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + start, len, StandardCharsets.UTF_8);
+        }
+        if (decodeBuffer == null || decodeBuffer.length < len) {
+            decodeBuffer = new byte[Math.max(len, buffer.length)];
+        }
+        for (int i = 0; i < len; i++) {
+            decodeBuffer[i] = bytes.get(start + i);
+        }
+        return new String(decodeBuffer, 0, len, StandardCharsets.UTF_8);
+    }
+
     /** {@inheritDoc} */
     @Override
     public Location getLocation() {
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2017 Angelo Zerr and other contributors as
+ * indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ec4j.core.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A pull style alternative to {@link EditorConfigParser}. Each {@link #next()} call scans the input up to the end of
+ * the next token and returns its {@link TokenKind}; the token itself is available as a pair of offsets into the input
+ * via {@link #getStart()} and {@link #getEnd()}, so that no objects are created unless the consumer asks for them
+ * via {@link #getText()}. Consumers interested in a few properties only, such as {@code root} or {@code charset}, can
+ * thus skip the rest of the input cheaply.
+ * <p>
+ * The tokens correspond to the strings passed to {@link EditorConfigHandler#endComment(ParseContext, String)},
+ * {@link EditorConfigHandler#endGlob(ParseContext, String)},
+ * {@link EditorConfigHandler#endPropertyName(ParseContext, String)} and
+ * {@link EditorConfigHandler#endPropertyValue(ParseContext, String)} by {@link EditorConfigParser} with the
+ * following exceptions: the property names are not lowercased, an empty section header {@code []} yields an empty
+ * {@link TokenKind#GLOB} and no syntax errors are reported.
+ * <p>
+ * Instances of this class are not thread safe.
+ *
+ * @since 0.2.2
+ */
+public class EditorConfigTokenizer {
+
+    /**
+     * The kinds of the tokens returned by {@link EditorConfigTokenizer#next()}.
+     */
+    public enum TokenKind {
+        /** A comment line including the leading {@code #} or {@code ;} */
+        COMMENT,
+        /** The glob of a section header, without the enclosing brackets */
+        GLOB,
+        /** A property name, always followed by a {@link #PROPERTY_VALUE} */
+        PROPERTY_NAME,
+        /** A property value without any inline comment, possibly empty */
+        PROPERTY_VALUE
+    }
+
+    /**
+     * @param input the EditorConfig content to tokenize
+     * @return a new {@link EditorConfigTokenizer} whose offsets are {@code char} indices in the given {@code input}
+     */
+    public static EditorConfigTokenizer of(CharSequence input) {
+        return new EditorConfigTokenizer(input, null, 0, input.length());
+    }
+
+    /**
+     * @param input the UTF-8 encoded EditorConfig content to tokenize between its position and its limit; the position
+     *        of the buffer is not changed
+     * @return a new {@link EditorConfigTokenizer} whose offsets are byte indices in the given {@code input}
+     */
+    public static EditorConfigTokenizer ofUtf8(ByteBuffer input) {
+        return new EditorConfigTokenizer(null, input, input.position(), input.limit());
+    }
+
+    private static boolean isWhiteSpace(int c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static int toLowerCase(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /** The UTF-8 input or {@code null} if tokenizing {@link #chars} */
+    private final ByteBuffer bytes;
+    private final CharSequence chars;
+    private final int limit;
+
+    private int end;
+    private TokenKind kind;
+    /** The offset to continue scanning from */
+    private int position;
+    private int start;
+
+    EditorConfigTokenizer(CharSequence chars, ByteBuffer bytes, int position, int limit) {
+        super();
+        this.chars = chars;
+        this.bytes = bytes;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    /**
+     * @param offset the offset in the input
+     * @return the {@code char} or the unsigned byte at the given {@code offset} or {@code -1} at the end of the input
+     */
+    private int at(int offset) {
+        if (offset >= limit) {
+            return -1;
+        }
+        return bytes == null ? chars.charAt(offset) : bytes.get(offset) & 0xFF;
+    }
+
+    /**
+     * @return the offset after the last code unit of the current token
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the kind of the current token or {@code null} if {@link #next()} was not called yet or if the end of
+     *         the input was reached
+     */
+    public TokenKind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the offset of the first code unit of the current token
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * @return the current token as a new {@link String}
+     */
+    public String getText() {
+        if (bytes == null) {
+            return chars.subSequence(start, end).toString();
+        }
+        final byte[] result = new byte[end - start];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bytes.get(start + i);
+        }
+        return new String(result, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return {@code true} if the current line starts with a BOM character which makes {@link EditorConfigParser}
+     *         ignore the line
+     */
+    private boolean isBom() {
+        if (bytes == null) {
+            return at(position) == '\ufeff';
+        }
+        return at(position) == 0xEF && at(position + 1) == 0xBB && at(position + 2) == 0xBF;
+    }
+
+    private boolean isLineEnd(int c) {
+        return c == -1 || c == '\n' || c == '\r';
+    }
+
+    /**
+     * Scans the input up to the end of the next token.
+     *
+     * @return the kind of the next token or {@code null} if the end of the input was reached
+     */
+    public TokenKind next() {
+        if (kind == TokenKind.PROPERTY_NAME) {
+            return readValue();
+        }
+        while (position < limit) {
+            skipWhiteSpace();
+            final int c = at(position);
+            if (isLineEnd(c) || isBom()) {
+                skipLine();
+                continue;
+            }
+            switch (c) {
+                case '#':
+                case ';':
+                    start = position;
+                    while (!isLineEnd(at(position))) {
+                        position++;
+                    }
+                    end = position;
+                    skipLine();
+                    return kind = TokenKind.COMMENT;
+                case '[':
+                    return readGlob();
+                default:
+                    start = position;
+                    int ch;
+                    while (!isLineEnd(ch = at(position)) && !isWhiteSpace(ch) && ch != '=' && ch != ':') {
+                        position++;
+                    }
+                    end = position;
+                    return kind = TokenKind.PROPERTY_NAME;
+            }
+        }
+        start = end = limit;
+        return kind = null;
+    }
+
+    private TokenKind readGlob() {
+        start = ++position;
+        readUntilInlineComment();
+        end = position;
+        for (int i = position - 1; i >= start; i--) {
+            if (at(i) == ']') {
+                end = i;
+                break;
+            }
+        }
+        skipLine();
+        return kind = TokenKind.GLOB;
+    }
+
+    /**
+     * Advances {@link #position} to the end of the line or to the start of an inline comment.
+     */
+    private void readUntilInlineComment() {
+        int c;
+        while (!isLineEnd(c = at(position)) && !((c == '#' || c == ';') && isWhiteSpace(at(position - 1)))) {
+            position++;
+        }
+    }
+
+    private TokenKind readValue() {
+        skipWhiteSpace();
+        final int c = at(position);
+        if (c == '=' || c == ':') {
+            position++;
+            skipWhiteSpace();
+        }
+        start = position;
+        readUntilInlineComment();
+        end = position;
+        skipLine();
+        return kind = TokenKind.PROPERTY_VALUE;
+    }
+
+    /**
+     * Advances {@link #position} after the next line feed or to the end of the input.
+     */
+    private void skipLine() {
+        while (position < limit && at(position++) != '\n') {
+            /* nothing to do */
+        }
+    }
+
+    private void skipWhiteSpace() {
+        while (isWhiteSpace(at(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Compares the current token with the given {@code value} ignoring the case, like
+     * {@link String#equalsIgnoreCase(String)} but without creating a {@link String} out of the token if the given
+     * {@code value} is ASCII.
+     *
+     * @param value the {@link String} to compare with
+     * @return {@code true} if the current token is equal to the given {@code value} ignoring the case; {@code false}
+     *         otherwise
+     */
+    public boolean textEqualsIgnoreCase(String value) {
+        final int len = value.length();
+        for (int i = 0; i < len; i++) {
+            if (value.charAt(i) >= 0x80) {
+                return getText().equalsIgnoreCase(value);
+            }
+        }
+        if (end - start != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            final int c = at(start + i);
+            final int v = value.charAt(i);
+            if (c != v && toLowerCase(c) != toLowerCase(v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2017 Angelo Zerr and other contributors as
+ * indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ec4j.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.ec4j.core.Cache.Caches;
+import org.ec4j.core.Cache.Caches.BoundedCache;
+import org.ec4j.core.Cache.Caches.BoundedCache.EvictionListener;
+import org.ec4j.core.Cache.Caches.WatchingCache;
+import org.ec4j.core.Resource.Resources;
+import org.ec4j.core.Resource.Resources.StringResourceTree;
+import org.ec4j.core.model.EditorConfig;
+import org.ec4j.core.model.Version;
+import org.ec4j.core.parser.EditorConfigModelHandler;
+import org.ec4j.core.parser.ErrorHandler;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    /**
+     * An {@link EditorConfigLoader} counting the invocations of {@link #load(Resource)}.
+     */
+    static class CountingLoader extends EditorConfigLoader {
+        final AtomicInteger loadCount = new AtomicInteger();
+
+        CountingLoader() {
+            super(new EditorConfigModelHandler(PropertyTypeRegistry.default_(), Version.CURRENT),
+                    ErrorHandler.THROW_SYNTAX_ERRORS_IGNORE_OTHERS);
+        }
+
+        @Override
+        public EditorConfig load(Resource configFile) throws IOException {
+            loadCount.incrementAndGet();
+            return super.load(configFile);
+        }
+    }
+
+    static final StringResourceTree TREE = StringResourceTree.builder() //
+            .resource("/.editorconfig", "root = true\n[*]\nindent_style = space\n") //
+            .resource("/dir/.editorconfig", "[*.java]\nindent_size = 4\n") //
+            .touch("/dir/Foo.java") //
+            .build();
+
+    static void queryConcurrently(final ResourcePropertiesService service, final Resource resource,
+            int threadCount) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<ResourceProperties>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(new Callable<ResourceProperties>() {
+                    @Override
+                    public ResourceProperties call() throws Exception {
+                        start.await();
+                        return service.queryProperties(resource);
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<ResourceProperties> future : futures) {
+                ResourceProperties props = future.get();
+                Assert.assertEquals("space", props.getProperties().get("indent_style").getSourceValue());
+                Assert.assertEquals("4", props.getProperties().get("indent_size").getSourceValue());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void bounded() throws IOException {
+        final CountingLoader loader = new CountingLoader();
+        final List<String> evicted = new ArrayList<>();
+        final Cache cache = BoundedCache.builder() //
+                .maximumSize(2) //
+                .evictionListener(new EvictionListener() {
+                    @Override
+                    public void evicted(Resource editorConfigFile, EditorConfig editorConfig) {
+                        evicted.add(editorConfigFile.getPath().toString());
+                    }
+                }) //
+                .build();
+        final StringResourceTree tree = StringResourceTree.builder() //
+                .resource("/a/.editorconfig", "[*]\nindent_style = space\n") //
+                .resource("/b/.editorconfig", "[*]\nindent_style = tab\n") //
+                .resource("/c/.editorconfig", "[*]\nindent_size = 2\n") //
+                .build();
+        final Resource a = tree.getResource("/a/.editorconfig");
+        final Resource b = tree.getResource("/b/.editorconfig");
+        final Resource c = tree.getResource("/c/.editorconfig");
+
+        cache.get(a, loader);
+        cache.get(b, loader);
+        /* make b the least recently used */
+        cache.get(a, loader);
+        Assert.assertEquals(2, loader.loadCount.get());
+        final long modificationCount = cache.getModificationCount();
+        cache.get(c, loader);
+        Assert.assertEquals(3, loader.loadCount.get());
+        Assert.assertEquals(Arrays.asList("/b/.editorconfig"), evicted);
+        /* The evicted entry was not stale */
+        Assert.assertEquals(modificationCount, cache.getModificationCount());
+
+        /* a and c are still there */
+        cache.get(a, loader);
+        cache.get(c, loader);
+        Assert.assertEquals(3, loader.loadCount.get());
+
+        /* b needs to be loaded again */
+        cache.get(b, loader);
+        Assert.assertEquals(4, loader.loadCount.get());
+        Assert.assertEquals(Arrays.asList("/b/.editorconfig", "/a/.editorconfig"), evicted);
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        final CountingLoader loader = new CountingLoader();
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(Caches.concurrent()) //
+                .loader(loader) //
+                .build();
+        queryConcurrently(service, TREE.getResource("/dir/Foo.java"), 16);
+        Assert.assertEquals(2, loader.loadCount.get());
+    }
+
+    @Test
+    public void negativeEntries() throws IOException, InterruptedException {
+        final Path dir = tmp.newFolder().toPath();
+        final Path file = dir.resolve(".editorconfig");
+        final Resource resource = Resources.ofPath(file, StandardCharsets.UTF_8);
+        final CountingLoader loader = new CountingLoader();
+
+        final Cache permanent = Caches.permanent(true);
+        final Cache noAbsence = Caches.permanent();
+        final Cache checkAlways = Caches.validating(0, TimeUnit.MILLISECONDS);
+        final Cache checkRarely = Caches.validating(1, TimeUnit.HOURS);
+        try (WatchingCache watching = Caches.watching()) {
+            Assert.assertNull(permanent.getIfExists(resource, loader));
+            Assert.assertNull(noAbsence.getIfExists(resource, loader));
+            Assert.assertNull(checkAlways.getIfExists(resource, loader));
+            Assert.assertNull(checkRarely.getIfExists(resource, loader));
+            Assert.assertNull(watching.getIfExists(resource, loader));
+            Assert.assertEquals(0, loader.loadCount.get());
+
+            Files.write(file, "[*]\nindent_style = space\n".getBytes(StandardCharsets.UTF_8));
+
+            /* the absence is remembered */
+            Assert.assertNull(permanent.getIfExists(resource, loader));
+            Assert.assertNull(checkRarely.getIfExists(resource, loader));
+            /* unless the cache checks or does not cache the absence at all */
+            Assert.assertEquals("space", indentStyle(checkAlways.getIfExists(resource, loader)));
+            Assert.assertEquals("space", indentStyle(noAbsence.getIfExists(resource, loader)));
+            final long deadline = System.currentTimeMillis() + 30000;
+            while (watching.getIfExists(resource, loader) == null) {
+                if (System.currentTimeMillis() > deadline) {
+                    Assert.fail("The creation of " + file + " was not noticed");
+                }
+                Thread.sleep(10);
+            }
+            Assert.assertEquals("space", indentStyle(watching.getIfExists(resource, loader)));
+            /* The creation and the write of the file may be reported as separate events, each causing a reload */
+            Assert.assertTrue(loader.loadCount.get() >= 3);
+            final int loadCount = loader.loadCount.get();
+
+            /* get() loads even if the file was seen absent before */
+            Assert.assertEquals("space", indentStyle(permanent.get(resource, loader)));
+            Assert.assertEquals("space", indentStyle(permanent.getIfExists(resource, loader)));
+            Assert.assertEquals(loadCount + 1, loader.loadCount.get());
+        }
+    }
+
+    @Test
+    public void singleFlight() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader() {
+            @Override
+            public EditorConfig load(Resource configFile) throws IOException {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.load(configFile);
+            }
+        };
+        final Cache cache = Caches.singleFlight(Caches.none());
+        final Resource resource = TREE.getResource("/.editorconfig");
+        final int threadCount = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<EditorConfig>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(new Callable<EditorConfig>() {
+                    @Override
+                    public EditorConfig call() throws Exception {
+                        return cache.get(resource, loader);
+                    }
+                }));
+            }
+            loading.await();
+            /* Give the other threads some time to join the running load */
+            Thread.sleep(200);
+            release.countDown();
+            final EditorConfig first = futures.get(0).get();
+            for (Future<EditorConfig> future : futures) {
+                Assert.assertSame(first, future.get());
+            }
+            Assert.assertEquals(1, loader.loadCount.get());
+        } finally {
+            executor.shutdown();
+        }
+
+        /* Nothing in flight anymore: the next call loads again */
+        cache.get(resource, loader);
+        Assert.assertEquals(2, loader.loadCount.get());
+    }
+
+    @Test
+    public void validating() throws IOException {
+        final Path dir = tmp.newFolder().toPath();
+        final Path file = dir.resolve(".editorconfig");
+        Files.write(file, "[*]\nindent_style = space\n".getBytes(StandardCharsets.UTF_8));
+        final Resource resource = Resources.ofPath(file, StandardCharsets.UTF_8);
+        final CountingLoader loader = new CountingLoader();
+
+        final Cache checkAlways = Caches.validating(0, TimeUnit.MILLISECONDS);
+        final Cache checkRarely = Caches.validating(1, TimeUnit.HOURS);
+        Assert.assertEquals("space", indentStyle(checkAlways.get(resource, loader)));
+        Assert.assertEquals("space", indentStyle(checkRarely.get(resource, loader)));
+        Assert.assertEquals("space", indentStyle(checkAlways.get(resource, loader)));
+        Assert.assertEquals(2, loader.loadCount.get());
+
+        Files.write(file, "[*]\nindent_style = tab\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+
+        Assert.assertEquals("tab", indentStyle(checkAlways.get(resource, loader)));
+        Assert.assertEquals(3, loader.loadCount.get());
+        Assert.assertEquals("tab", indentStyle(checkAlways.get(resource, loader)));
+        Assert.assertEquals(3, loader.loadCount.get());
+
+        /* the check interval has not elapsed yet */
+        Assert.assertEquals("space", indentStyle(checkRarely.get(resource, loader)));
+        Assert.assertEquals(3, loader.loadCount.get());
+    }
+
+    private static String indentStyle(EditorConfig editorConfig) {
+        return editorConfig.getSections().get(0).getProperties().get("indent_style").getSourceValue();
+    }
+
+    @Test
+    public void watching() throws IOException, InterruptedException {
+        final Path dir = tmp.newFolder().toPath();
+        final Path file = dir.resolve(".editorconfig");
+        Files.write(file, "[*]\nindent_style = space\n".getBytes(StandardCharsets.UTF_8));
+        final Resource resource = Resources.ofPath(file, StandardCharsets.UTF_8);
+        final CountingLoader loader = new CountingLoader();
+
+        try (WatchingCache cache = Caches.watching()) {
+            Assert.assertEquals("space", indentStyle(cache.get(resource, loader)));
+            Assert.assertEquals("space", indentStyle(cache.get(resource, loader)));
+            Assert.assertEquals(1, loader.loadCount.get());
+
+            Files.write(file, "[*]\nindent_style = tab\n".getBytes(StandardCharsets.UTF_8));
+            final long deadline = System.currentTimeMillis() + 30000;
+            while (!"tab".equals(indentStyle(cache.get(resource, loader)))) {
+                if (System.currentTimeMillis() > deadline) {
+                    Assert.fail("The change of " + file + " was not noticed");
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test
+    public void watchingUnrelatedFile() throws IOException, InterruptedException {
+        final Path dir = tmp.newFolder().toPath();
+        final Path file = dir.resolve(".editorconfig");
+        Files.write(file, "[*]\nindent_style = space\n".getBytes(StandardCharsets.UTF_8));
+        final Resource resource = Resources.ofPath(file, StandardCharsets.UTF_8);
+        final CountingLoader loader = new CountingLoader();
+
+        try (WatchingCache cache = Caches.watching()) {
+            Assert.assertEquals("space", indentStyle(cache.get(resource, loader)));
+            final long modificationCount = cache.getModificationCount();
+
+            Files.write(dir.resolve("Foo.java"), "class Foo {}".getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(200);
+            Assert.assertEquals(modificationCount, cache.getModificationCount());
+            Assert.assertEquals("space", indentStyle(cache.get(resource, loader)));
+            Assert.assertEquals(1, loader.loadCount.get());
+
+            /* The events of the same directory come in order, so the ones of Foo.java are processed before these */
+            Files.write(file, "[*]\nindent_style = tab\n".getBytes(StandardCharsets.UTF_8));
+            final long deadline = System.currentTimeMillis() + 30000;
+            while (!"tab".equals(indentStyle(cache.get(resource, loader)))) {
+                if (System.currentTimeMillis() > deadline) {
+                    Assert.fail("The change of " + file + " was not noticed");
+                }
+                Thread.sleep(10);
+            }
+            /* Each modification is an eviction of an entry that was loaded before */
+            final long modifications = cache.getModificationCount() - modificationCount;
+            Assert.assertTrue(modifications >= 1);
+            Assert.assertTrue(modifications <= loader.loadCount.get() - 1);
+        }
+    }
+
+}
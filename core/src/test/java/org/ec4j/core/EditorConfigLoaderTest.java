@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2017 Angelo Zerr and other contributors as
+ * indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ec4j.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.ec4j.core.Resource.Resources;
+import org.ec4j.core.model.EditorConfig;
+import org.ec4j.core.model.Version;
+import org.ec4j.core.parser.EditorConfigModelHandler;
+import org.ec4j.core.parser.ErrorHandler;
+import org.ec4j.core.parser.ParseException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EditorConfigLoaderTest {
+
+    @Test
+    public void loadConcurrently() throws Exception {
+        final EditorConfigLoader loader = EditorConfigLoader.default_();
+        final int threadCount = 8;
+        final int filesPerThread = 200;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                final int thread = i;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int j = 0; j < filesPerThread; j++) {
+                            final String size = String.valueOf(thread * filesPerThread + j);
+                            final Resource file = Resources.ofString("/" + size + "/.editorconfig",
+                                    "[*.{java,xml}]\nindent_style = space\nindent_size = " + size + "\n");
+                            final EditorConfig editorConfig = loader.load(file);
+                            Assert.assertEquals(1, editorConfig.getSections().size());
+                            Assert.assertEquals(size, editorConfig.getSections().get(0).getProperties()
+                                    .get("indent_size").getSourceValue());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void loadAfterFailure() throws Exception {
+        final AtomicInteger handlerCount = new AtomicInteger();
+        final EditorConfigLoader loader = new EditorConfigLoader(new Supplier<EditorConfigModelHandler>() {
+            @Override
+            public EditorConfigModelHandler get() {
+                handlerCount.incrementAndGet();
+                return new EditorConfigModelHandler(PropertyTypeRegistry.default_(), Version.CURRENT);
+            }
+        }, ErrorHandler.THROW_SYNTAX_ERRORS_IGNORE_OTHERS);
+        try {
+            loader.load(Resources.ofString("/broken/.editorconfig", "[*\n"));
+            Assert.fail("ParseException expected");
+        } catch (ParseException expected) {
+        }
+        Assert.assertEquals(1, handlerCount.get());
+        /* The parser and the handler of the failed load are discarded, so a new pair is created */
+        final Resource file = Resources.ofString("/.editorconfig", "root = true\n[*]\nindent_style = space\n");
+        final EditorConfig editorConfig = loader.load(file);
+        Assert.assertTrue(editorConfig.isRoot());
+        Assert.assertEquals(1, editorConfig.getSections().size());
+        Assert.assertEquals(2, handlerCount.get());
+        /* The ones of the successful load are reused */
+        loader.load(file);
+        Assert.assertEquals(2, handlerCount.get());
+    }
+
+}
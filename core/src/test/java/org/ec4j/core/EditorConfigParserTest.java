@@ -17,12 +17,22 @@
 package org.ec4j.core;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
+import org.ec4j.core.Resource.Resources;
 import org.ec4j.core.Resource.Resources.StringResourceTree;
 import org.ec4j.core.model.Property;
+import org.ec4j.core.parser.EditorConfigHandler;
+import org.ec4j.core.parser.EditorConfigParser;
+import org.ec4j.core.parser.ErrorEvent;
+import org.ec4j.core.parser.ErrorHandler;
+import org.ec4j.core.parser.ParseContext;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -35,6 +45,97 @@ import org.junit.Test;
  */
 public class EditorConfigParserTest {
 
+    /**
+     * Records the events together with their {@link ParseContext#getLocation()}.
+     */
+    private static class RecordingHandler implements EditorConfigHandler, ErrorHandler {
+        private final List<String> events = new ArrayList<>();
+
+        private void record(ParseContext context, String event) {
+            events.add(context.getLocation() + " " + event);
+        }
+
+        @Override
+        public void blankLine(ParseContext context) {
+            record(context, "blankLine");
+        }
+
+        @Override
+        public void endComment(ParseContext context, String comment) {
+            record(context, "endComment " + comment);
+        }
+
+        @Override
+        public void endDocument(ParseContext context) {
+            record(context, "endDocument");
+        }
+
+        @Override
+        public void endGlob(ParseContext context, String glob) {
+            record(context, "endGlob " + glob);
+        }
+
+        @Override
+        public void endProperty(ParseContext context) {
+            record(context, "endProperty");
+        }
+
+        @Override
+        public void endPropertyName(ParseContext context, String name) {
+            record(context, "endPropertyName " + name);
+        }
+
+        @Override
+        public void endPropertyValue(ParseContext context, String value) {
+            record(context, "endPropertyValue " + value);
+        }
+
+        @Override
+        public void endSection(ParseContext context) {
+            record(context, "endSection");
+        }
+
+        @Override
+        public void error(ParseContext context, ErrorEvent errorEvent) {
+            record(context, "error " + errorEvent.getErrorType() + " " + errorEvent.getStart());
+        }
+
+        @Override
+        public void startComment(ParseContext context) {
+            record(context, "startComment");
+        }
+
+        @Override
+        public void startDocument(ParseContext context) {
+            record(context, "startDocument");
+        }
+
+        @Override
+        public void startGlob(ParseContext context) {
+            record(context, "startGlob");
+        }
+
+        @Override
+        public void startProperty(ParseContext context) {
+            record(context, "startProperty");
+        }
+
+        @Override
+        public void startPropertyName(ParseContext context) {
+            record(context, "startPropertyName");
+        }
+
+        @Override
+        public void startPropertyValue(ParseContext context) {
+            record(context, "startPropertyValue");
+        }
+
+        @Override
+        public void startSection(ParseContext context) {
+            record(context, "startSection");
+        }
+    }
+
     private static final String WHITESPACE_DOT_IN = "; test whitespace usage\r\n" + //
             "\r\n" + //
             "root = true\r\n" + //
@@ -229,6 +330,38 @@ public class EditorConfigParserTest {
         Assert.assertEquals("name2 = value2", it.next().toString());
     }
 
+    @Test
+    public void utf8Bytes() throws IOException {
+        final EditorConfigParser parser = EditorConfigParser.builder().bufferSize(16).build();
+        for (String content : new String[] { WHITESPACE_DOT_IN, COMMENTS_DOT_IN, BASIC_DOT_IN,
+                "[*.\u017e]\nn\u00e4me = \ud834\udd1e v\u00e1lue ; comment\n", "\ufeffroot = true\n[*]\nk=v",
+                "key\n  [b]  x\n", "" }) {
+            final Resource resource = Resources.ofString("/.editorconfig", content);
+            final RecordingHandler expected = new RecordingHandler();
+            parser.parse(resource, expected, expected);
+
+            final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            final RecordingHandler heap = new RecordingHandler();
+            parser.parse(resource, ByteBuffer.wrap(bytes), heap, heap);
+            Assert.assertEquals(content, expected.events, heap.events);
+
+            final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 2);
+            direct.position(2);
+            direct.put(bytes).position(2);
+            final RecordingHandler directHandler = new RecordingHandler();
+            parser.parse(resource, direct, directHandler, directHandler);
+            Assert.assertEquals(content, expected.events, directHandler.events);
+            Assert.assertEquals(2, direct.position());
+        }
+    }
+
+    @Test(expected = MalformedInputException.class)
+    public void utf8BytesMalformed() throws IOException {
+        final byte[] bytes = new byte[] { '[', (byte) 0xC3, ']', '\n' };
+        EditorConfigParser.default_().parse(Resources.ofString("/.editorconfig", ""), ByteBuffer.wrap(bytes),
+                new RecordingHandler(), ErrorHandler.IGNORING);
+    }
+
     @Test
     public void max_section_name_ok() throws IOException {
         final String testFile = "root/test3";
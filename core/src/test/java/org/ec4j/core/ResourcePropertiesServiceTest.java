@@ -0,0 +1,485 @@
+/**
+ * Copyright (c) 2017 Angelo Zerr and other contributors as
+ * indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ec4j.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.ec4j.core.Cache.Caches;
+import org.ec4j.core.Cache.Caches.ConcurrentCache;
+import org.ec4j.core.Resource.Resources;
+import org.ec4j.core.Resource.Resources.StringResourceTree;
+import org.ec4j.core.ResourcePath.ResourcePaths;
+import org.ec4j.core.model.EditorConfig;
+import org.ec4j.core.model.Property;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourcePropertiesServiceTest {
+
+    /**
+     * A {@link Cache} counting the lookups it gets.
+     */
+    static class CountingCache implements Cache {
+        final ConcurrentCache delegate = (ConcurrentCache) Caches.concurrent();
+        final AtomicInteger lookupCount = new AtomicInteger();
+
+        @Override
+        public EditorConfig get(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+            lookupCount.incrementAndGet();
+            return delegate.get(editorConfigFile, loader);
+        }
+
+        @Override
+        public EditorConfig getIfExists(Resource editorConfigFile, EditorConfigLoader loader) throws IOException {
+            lookupCount.incrementAndGet();
+            return delegate.getIfExists(editorConfigFile, loader);
+        }
+
+        @Override
+        public long getModificationCount() {
+            return delegate.getModificationCount();
+        }
+    }
+
+    static final StringResourceTree TREE = StringResourceTree.builder() //
+            .resource("/.editorconfig", "root = true\n[*]\nindent_style = space\n") //
+            .resource("/dir/.editorconfig", "[*.java]\nindent_size = 4\n") //
+            .touch("/dir/Foo.java") //
+            .touch("/dir/Bar.java") //
+            .touch("/dir/Bar.txt") //
+            .touch("/dir/sub/Baz.java") //
+            .build();
+
+    static String value(ResourceProperties props, String name) {
+        final Property prop = props.getProperties().get(name);
+        return prop == null ? null : prop.getSourceValue();
+    }
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void chainsCached() throws IOException {
+        final CountingCache cache = new CountingCache();
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(cache) //
+                .build();
+
+        ResourceProperties props = service.queryProperties(TREE.getResource("/dir/Foo.java"));
+        Assert.assertEquals("space", value(props, "indent_style"));
+        Assert.assertEquals("4", value(props, "indent_size"));
+        Assert.assertEquals(2, cache.lookupCount.get());
+
+        /* Same directory: the files of the cached chain are looked up again, but there is no walk */
+        props = service.queryProperties(TREE.getResource("/dir/Bar.java"));
+        Assert.assertEquals("space", value(props, "indent_style"));
+        Assert.assertEquals("4", value(props, "indent_size"));
+        Assert.assertEquals(4, cache.lookupCount.get());
+
+        /* Another directory gets walked */
+        props = service.queryProperties(TREE.getResource("/dir/sub/Baz.java"));
+        Assert.assertEquals("4", value(props, "indent_size"));
+        Assert.assertEquals(7, cache.lookupCount.get());
+
+        /* A modification of the cache drops the chains */
+        cache.delegate.clear();
+        props = service.queryProperties(TREE.getResource("/dir/Foo.java"));
+        Assert.assertEquals("4", value(props, "indent_size"));
+        Assert.assertEquals(9, cache.lookupCount.get());
+    }
+
+    @Test
+    public void memoizeProperties() throws IOException {
+        final CountingCache cache = new CountingCache();
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(cache) //
+                .memoizeProperties(true) //
+                .build();
+
+        final ResourceProperties foo = service.queryProperties(TREE.getResource("/dir/Foo.java"));
+        final ResourceProperties bar = service.queryProperties(TREE.getResource("/dir/Bar.java"));
+        Assert.assertSame(foo, bar);
+        Assert.assertEquals("4", value(foo, "indent_size"));
+        try {
+            foo.getProperties().clear();
+            Assert.fail("UnsupportedOperationException expected");
+        } catch (UnsupportedOperationException expected) {
+        }
+
+        /* Different sections match */
+        final ResourceProperties txt = service.queryProperties(TREE.getResource("/dir/Bar.txt"));
+        Assert.assertNotSame(foo, txt);
+        Assert.assertEquals("space", value(txt, "indent_style"));
+        Assert.assertNull(value(txt, "indent_size"));
+
+        /* A modification of the cache drops the memoized results */
+        cache.delegate.clear();
+        Assert.assertNotSame(foo, service.queryProperties(TREE.getResource("/dir/Foo.java")));
+    }
+
+    @Test
+    public void propertiesNotMemoizedByDefault() throws IOException {
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(Caches.concurrent()) //
+                .build();
+        final ResourceProperties foo = service.queryProperties(TREE.getResource("/dir/Foo.java"));
+        Assert.assertNotSame(foo, service.queryProperties(TREE.getResource("/dir/Bar.java")));
+        foo.getProperties().clear();
+        Assert.assertEquals("4", value(service.queryProperties(TREE.getResource("/dir/Foo.java")), "indent_size"));
+    }
+
+    @Test
+    public void queryPropertiesBatch() throws IOException {
+        final CacheTest.CountingLoader loader = new CacheTest.CountingLoader();
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .loader(loader) //
+                .build();
+        final List<Resource> resources = Arrays.asList( //
+                TREE.getResource("/dir/sub/Baz.java"), //
+                TREE.getResource("/dir/Foo.java"), //
+                TREE.getResource("/dir/Bar.txt"), //
+                TREE.getResource("/dir/Bar.java"));
+        final Map<Resource, ResourceProperties> result = service.queryProperties(resources);
+        Assert.assertEquals(resources, new ArrayList<>(result.keySet()));
+        for (Map.Entry<Resource, ResourceProperties> en : result.entrySet()) {
+            Assert.assertEquals(service.queryProperties(en.getKey()).getProperties(),
+                    en.getValue().getProperties());
+        }
+        /* Without a Cache: 2 loads per directory in the batch and 2 for each of the four single queries */
+        Assert.assertEquals(2 * 2 + 4 * 2, loader.loadCount.get());
+    }
+
+    @Test
+    public void queryTree() throws IOException {
+        final CacheTest.CountingLoader loader = new CacheTest.CountingLoader();
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .loader(loader) //
+                .build();
+        final Map<Resource, ResourceProperties> result = new ConcurrentHashMap<>();
+        final ResourcePath root = TREE.getResource("/.editorconfig").getParent();
+        service.queryTree(root, ForkJoinPool.commonPool(), new BiConsumer<Resource, ResourceProperties>() {
+            @Override
+            public void accept(Resource resource, ResourceProperties props) {
+                result.put(resource, props);
+            }
+        });
+        /* Each .editorconfig file loaded only once despite no Cache */
+        Assert.assertEquals(2, loader.loadCount.get());
+        Assert.assertEquals(6, result.size());
+        for (Map.Entry<Resource, ResourceProperties> en : result.entrySet()) {
+            Assert.assertEquals(service.queryProperties(en.getKey()).getProperties(),
+                    en.getValue().getProperties());
+        }
+        Assert.assertEquals("4", value(result.get(TREE.getResource("/dir/sub/Baz.java")), "indent_size"));
+    }
+
+    @Test
+    public void rejectNonThreadSafeCache() throws IOException {
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(Caches.singleFlight(Caches.permanent())) //
+                .build();
+        try {
+            service.queryPropertiesAsync(TREE.getResource("/dir/Foo.java"), ForkJoinPool.commonPool());
+            Assert.fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            service.queryTree(TREE.getResource("/.editorconfig").getParent(), ForkJoinPool.commonPool(),
+                    new BiConsumer<Resource, ResourceProperties>() {
+                        @Override
+                        public void accept(Resource resource, ResourceProperties props) {
+                        }
+                    });
+            Assert.fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+        /* The synchronous queries still work */
+        Assert.assertEquals("4", value(service.queryProperties(TREE.getResource("/dir/Foo.java")), "indent_size"));
+    }
+
+    @Test
+    public void queryTreeCannotList() throws IOException {
+        final ResourcePath root = Resources
+                .ofClassPath(getClass().getClassLoader(), "/org/ec4j/core/.editorconfig", StandardCharsets.UTF_8)
+                .getParent();
+        Assert.assertFalse(root.canList());
+        final ResourcePropertiesService service = ResourcePropertiesService.default_();
+        try {
+            service.queryTree(root, ForkJoinPool.commonPool(), new BiConsumer<Resource, ResourceProperties>() {
+                @Override
+                public void accept(Resource resource, ResourceProperties props) {
+                    Assert.fail("No files expected");
+                }
+            });
+            Assert.fail("UnsupportedOperationException expected");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void queryTreeOfPaths() throws IOException {
+        final Path root = tmp.getRoot().toPath();
+        final Path sub = Files.createDirectories(root.resolve("a/b"));
+        Files.write(root.resolve(".editorconfig"),
+                "root = true\n[*]\nindent_size = 2\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(sub.resolve(".editorconfig"), "[*.xml]\nindent_size = 3\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(sub.resolve("pom.xml"), new byte[0]);
+        Files.write(root.resolve("a/Foo.java"), new byte[0]);
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(Caches.concurrent()) //
+                .build();
+        final Map<Path, String> result = new ConcurrentHashMap<>();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            service.queryTree(ResourcePaths.ofPath(root, StandardCharsets.UTF_8), pool,
+                    new BiConsumer<Resource, ResourceProperties>() {
+                        @Override
+                        public void accept(Resource resource, ResourceProperties props) {
+                            result.put(root.relativize(Paths.get(resource.getPath().toString())),
+                                    value(props, "indent_size"));
+                        }
+                    });
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertEquals(4, result.size());
+        Assert.assertEquals("3", result.get(Paths.get("a/b/pom.xml")));
+        Assert.assertEquals("2", result.get(Paths.get("a/Foo.java")));
+    }
+
+    @Test
+    public void findMatchingResources() throws IOException {
+        final StringResourceTree tree = StringResourceTree.builder() //
+                .resource("/.editorconfig",
+                        "root = true\n[src/**.java]\nindent_size = 4\n[/Makefile]\nindent_style = tab\n") //
+                .resource("/src/.editorconfig", "[*.xml]\nindent_size = 2\n") //
+                .touch("/Makefile") //
+                .touch("/docs/Makefile") //
+                .touch("/docs/Foo.java") //
+                .touch("/src/a/Foo.java") //
+                .touch("/src/a/foo.xml") //
+                .touch("/src/Bar.java") //
+                .build();
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(Caches.none()) //
+                .build();
+        final Set<String> result = ConcurrentHashMap.newKeySet();
+        final ResourcePath root = tree.getResource("/.editorconfig").getParent();
+        service.findMatchingResources(root, ForkJoinPool.commonPool(), new Consumer<Resource>() {
+            @Override
+            public void accept(Resource resource) {
+                result.add(resource.getPath().toString());
+            }
+        });
+        /* /src/.editorconfig is not considered when walking from / */
+        Assert.assertEquals(new HashSet<>(Arrays.asList("/Makefile", "/src/a/Foo.java", "/src/Bar.java")), result);
+
+        result.clear();
+        service.findMatchingResources(tree.getResource("/src/.editorconfig").getParent(), ForkJoinPool.commonPool(),
+                new Consumer<Resource>() {
+                    @Override
+                    public void accept(Resource resource) {
+                        result.add(resource.getPath().toString());
+                    }
+                });
+        Assert.assertEquals(new HashSet<>(Arrays.asList("/src/a/Foo.java", "/src/a/foo.xml", "/src/Bar.java")),
+                result);
+    }
+
+    @Test
+    public void queryPropertiesAsync() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final StringResourceTree tree = StringResourceTree.builder() //
+                    .resource("/.editorconfig", "[*\n") //
+                    .resource("/root/.editorconfig", "root = true\n[*]\nindent_style = space\n") //
+                    .resource("/root/dir/.editorconfig", "[*.java]\nindent_size = 4\n") //
+                    .touch("/root/dir/Foo.java") //
+                    .touch("/Foo.java") //
+                    .build();
+            final CountingCache cache = new CountingCache();
+            final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                    .cache(cache) //
+                    .build();
+            final Resource foo = tree.getResource("/root/dir/Foo.java");
+
+            /* The broken /.editorconfig above the root is looked up but ignored */
+            ResourceProperties props = service.queryPropertiesAsync(foo, executor).toCompletableFuture().get();
+            Assert.assertEquals("space", value(props, "indent_style"));
+            Assert.assertEquals("4", value(props, "indent_size"));
+            Assert.assertEquals(3, cache.lookupCount.get());
+
+            /* The chain is cached now: only the files up to the root get looked up again */
+            props = service.queryPropertiesAsync(foo, executor).toCompletableFuture().get();
+            Assert.assertEquals("4", value(props, "indent_size"));
+            Assert.assertEquals(5, cache.lookupCount.get());
+
+            try {
+                service.queryPropertiesAsync(tree.getResource("/Foo.java"), executor).toCompletableFuture().get();
+                Assert.fail("ExecutionException expected");
+            } catch (ExecutionException expected) {
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void queryPropertiesAsyncDoesNotBlock() throws Exception {
+        final AtomicInteger modificationCountCalls = new AtomicInteger();
+        final CountingCache cache = new CountingCache() {
+            @Override
+            public long getModificationCount() {
+                modificationCountCalls.incrementAndGet();
+                return super.getModificationCount();
+            }
+        };
+        final List<Runnable> tasks = new ArrayList<>();
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(cache) //
+                .build();
+        for (int i = 0; i < 2; i++) {
+            /* Neither a fresh nor a cached chain is looked up on the calling thread */
+            final CompletableFuture<ResourceProperties> props = service
+                    .queryPropertiesAsync(TREE.getResource("/dir/Foo.java"), executor).toCompletableFuture();
+            Assert.assertEquals(0, modificationCountCalls.get());
+            Assert.assertEquals(0, cache.lookupCount.get());
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+            Assert.assertEquals("4", value(props.get(), "indent_size"));
+            modificationCountCalls.set(0);
+            cache.lookupCount.set(0);
+        }
+    }
+
+    @Test
+    public void chainsNotCachedWithoutModificationCount() throws IOException {
+        final CacheTest.CountingLoader loader = new CacheTest.CountingLoader();
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .loader(loader) //
+                .build();
+        service.queryProperties(TREE.getResource("/dir/Foo.java"));
+        service.queryProperties(TREE.getResource("/dir/Bar.java"));
+        Assert.assertEquals(4, loader.loadCount.get());
+    }
+
+    @Test
+    public void chainsWithRootDirectoryAndDefaults() throws IOException {
+        final CountingCache cache = new CountingCache();
+        final EditorConfig defaults = EditorConfigLoader.default_()
+                .load(Resources.ofString("/defaults", "[*]\nend_of_line = lf\n"));
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(cache) //
+                .rootDirectory(TREE.getResource("/dir/Foo.java").getParent()) //
+                .defaultEditorConfig(defaults) //
+                .build();
+        for (String file : new String[] { "/dir/Foo.java", "/dir/Bar.java" }) {
+            final ResourceProperties props = service.queryProperties(TREE.getResource(file));
+            Assert.assertNull(value(props, "indent_style"));
+            Assert.assertEquals("4", value(props, "indent_size"));
+            Assert.assertEquals("lf", value(props, "end_of_line"));
+        }
+        Assert.assertEquals(2, cache.lookupCount.get());
+    }
+
+    @Test
+    public void chainsValidated() throws IOException {
+        final Path dir = tmp.getRoot().toPath();
+        final Path ec = dir.resolve(".editorconfig");
+        Files.write(ec, "root = true\n[*]\nindent_size = 2\n".getBytes(StandardCharsets.UTF_8));
+        final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                .cache(Caches.validating(0, TimeUnit.MILLISECONDS)) //
+                .build();
+        final Resource file = Resources.ofPath(dir.resolve("Foo.java"), StandardCharsets.UTF_8);
+        Assert.assertEquals("2", value(service.queryProperties(file), "indent_size"));
+
+        Files.write(ec, "root = true\n[*]\nindent_size = 16\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("16", value(service.queryProperties(file), "indent_size"));
+    }
+
+    @Test
+    public void absenceCachedOnlyOnRequest() throws IOException {
+        final Path dir = tmp.getRoot().toPath();
+        Files.write(dir.resolve(".editorconfig"), "root = true\n[*]\nindent_size = 2\n".getBytes(StandardCharsets.UTF_8));
+        final Path sub = Files.createDirectory(dir.resolve("sub"));
+        final Resource file = Resources.ofPath(sub.resolve("Foo.java"), StandardCharsets.UTF_8);
+        final ResourcePropertiesService checking = ResourcePropertiesService.builder() //
+                .cache(Caches.concurrent()) //
+                .build();
+        final ResourcePropertiesService remembering = ResourcePropertiesService.builder() //
+                .cache(Caches.concurrent(true)) //
+                .build();
+        Assert.assertEquals("2", value(checking.queryProperties(file), "indent_size"));
+        Assert.assertEquals("2", value(remembering.queryProperties(file), "indent_size"));
+
+        Files.write(sub.resolve(".editorconfig"), "[*]\nindent_size = 4\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("4", value(checking.queryProperties(file), "indent_size"));
+        /* The absence of sub/.editorconfig was cached on request */
+        Assert.assertEquals("2", value(remembering.queryProperties(file), "indent_size"));
+    }
+
+    @Test
+    public void chainsNoticeCreatedEditorConfig() throws IOException {
+        final Cache[] caches = { Caches.permanent(), Caches.concurrent(),
+                Caches.BoundedCache.builder().maximumSize(16).build() };
+        for (Cache cache : caches) {
+            final Path dir = tmp.newFolder().toPath();
+            Files.write(dir.resolve(".editorconfig"), "root = true\n[*]\nindent_size = 2\n".getBytes(StandardCharsets.UTF_8));
+            final Path sub = Files.createDirectory(dir.resolve("sub"));
+            final ResourcePropertiesService service = ResourcePropertiesService.builder() //
+                    .cache(cache) //
+                    .build();
+            final Resource file = Resources.ofPath(sub.resolve("Foo.java"), StandardCharsets.UTF_8);
+            Assert.assertEquals("2", value(service.queryProperties(file), "indent_size"));
+            Assert.assertEquals("2", value(service.queryProperties(file), "indent_size"));
+
+            Files.write(sub.resolve(".editorconfig"), "[*]\nindent_size = 4\n".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(cache.getClass().getName(), "4", value(service.queryProperties(file), "indent_size"));
+        }
+    }
+
+}
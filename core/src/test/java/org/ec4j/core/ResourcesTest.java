@@ -16,16 +16,88 @@
  */
 package org.ec4j.core;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import org.ec4j.core.Resource.Bom;
+import org.ec4j.core.Resource.RandomReader;
 import org.ec4j.core.Resource.Resources;
 import org.ec4j.core.Resource.Resources.StringResourceTree;
+import org.ec4j.core.ResourcePath.ResourcePaths;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class ResourcesTest {
 
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void ofMappedPath() throws IOException {
+        final Path dir = tmp.getRoot().toPath();
+        Files.write(dir.resolve(".editorconfig"),
+                "root = true\n[*]\nindent_size = 3\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("bom.txt"), "\ufeffa\u00e4".getBytes(StandardCharsets.UTF_8));
+
+        final Resource r = Resources.ofPath(dir.resolve(".editorconfig"), StandardCharsets.UTF_8, true);
+        final ByteBuffer bytes = r.readUtf8Bytes();
+        Assert.assertTrue(bytes.isDirect());
+        Assert.assertEquals(32, bytes.remaining());
+        try (RandomReader reader = r.openRandomReader()) {
+            Assert.assertEquals(32, reader.getLength());
+            Assert.assertEquals('r', reader.read(0));
+            Assert.assertEquals('3', reader.read(30));
+        }
+
+        final Resource bom = Resources.ofPath(dir.resolve("bom.txt"), Bom.UTF_8_BOM.getCharset(), true);
+        Assert.assertEquals(3, bom.readUtf8Bytes().position());
+        try (RandomReader reader = bom.openRandomReader()) {
+            Assert.assertEquals(2, reader.getLength());
+            Assert.assertEquals('\u00e4', reader.read(1));
+        }
+
+        /* The mapped setting is inherited */
+        final ResourcePath parent = ResourcePaths.ofPath(dir, StandardCharsets.UTF_8, true);
+        Assert.assertTrue(parent.resolve(".editorconfig").readUtf8Bytes().isDirect());
+        Assert.assertTrue(r.getParent().resolve(".editorconfig").readUtf8Bytes().isDirect());
+        Assert.assertFalse(Resources.ofPath(dir.resolve(".editorconfig"), StandardCharsets.UTF_8).readUtf8Bytes()
+                .isDirect());
+
+        final ResourceProperties props = ResourcePropertiesService.default_()
+                .queryProperties(parent.resolve("Foo.java"));
+        Assert.assertEquals("3", props.getProperties().get("indent_size").getSourceValue());
+    }
+
+    @Test
+    public void mappedRandomReader() throws IOException {
+        final Path file = tmp.getRoot().toPath().resolve("a.txt");
+        Files.write(file, "ab".getBytes(StandardCharsets.UTF_8));
+        final Resource r = Resources.ofPath(file, StandardCharsets.UTF_8, true);
+        try (RandomReader reader = r.openRandomReader()) {
+            Assert.assertEquals('b', reader.read(1));
+        }
+
+        /* The content is checked on every open */
+        Files.write(file, "a\u00e4".getBytes(StandardCharsets.UTF_8));
+        try (RandomReader reader = r.openRandomReader()) {
+            Assert.assertEquals(2, reader.getLength());
+            Assert.assertEquals('\u00e4', reader.read(1));
+        }
+
+        Files.write(file, new byte[] { 'a', (byte) 0xC3 });
+        try (RandomReader reader = r.openRandomReader()) {
+            Assert.fail(CharacterCodingException.class.getName() + " expected");
+        } catch (CharacterCodingException expected) {
+        }
+    }
+
     @Test
     public void ofClassPath() {
         Resource r = Resources.ofClassPath(getClass().getClassLoader(), "/location-aware/.editorconfig",
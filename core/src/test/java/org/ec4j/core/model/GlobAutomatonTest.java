@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2017 Angelo Zerr and other contributors as
+ * indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ec4j.core.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlobAutomatonTest {
+
+    private static final String[] GLOBS = { "*", "*.java", "*.{java,xml}", "{*.json,.travisyml}", "Makefile",
+            "lib/**.js", "**/test/*.c", "a/**/b", "[abc].txt", "[!abc].txt", "[a-c]?.md", "a\\*b", "{a,{b,c}}",
+            "{single}", "{,a}", "[a/b]", "a[", "[]a", "x\\#y", "?.?", "ab*", "*.[ch]", "[-a]", "[a-]", "{a,b",
+            /* required literals */
+            "**/*.min.js", "src/**/*.java", "ab*ab", "a*b*a", "*a.b*", "x{1..3}y", "[z-a].txt",
+            /* more than 64 states */
+            "*{abcdefgh,ijklmnop,qrstuvwx,yzabcdef,ghijklmn,opqrstuv,wxyzabcd,efghijkl,mnopqrst}*.x" };
+
+    private static final String[] INPUTS = { "", "a", "b", "a.java", "a.xml", "a.json", ".travisyml", "Makefile",
+            "lib/a.js", "lib/x/y.js", "test/a.c", "x/test/a.c", "a/b", "a/x/b", "a/x/y/b", "a.txt", "d.txt",
+            "bx.md", "a*b", "ab", "abc", "c", "single", "{single}", "[a/b]", "a[", "[]a", "x#y", "a.b", "ab\n",
+            "x.h", "-", "a\nb", "é.java", "😀.java", "😀", "{a,b",
+            "_qrstuvwx_.x", "mnopqrst.x", "mnopqrs.x", "x/a.min.js", "a.min.js", "/.min.js", "src/a/B.java",
+            "src/B.java", "src/.java", "aba", "abab", "ababab", "aa", "a.b", "xa.bx", "x2y", "dir/Makefile",
+            "Rakefile", "a.", "a.b/c", "x.min.js", "dir/.min.js", "dir/x.js" };
+
+    private static void assertSameAsRegex(String glob, String input) {
+        final List<int[]> ranges = new ArrayList<>();
+        final StringBuilder regex = new StringBuilder();
+        Glob.convertGlobToRegEx(glob, ranges, regex);
+        final Pattern pattern;
+        try {
+            pattern = Pattern.compile(regex.toString());
+        } catch (PatternSyntaxException e) {
+            /* Glob relies on the automaton parser to reject all invalid regexes */
+            Assert.assertNull(glob + " " + regex, GlobAutomaton.compile(regex.toString(), ranges));
+            return;
+        }
+        final GlobAutomaton automaton = GlobAutomaton.compile(regex.toString(), ranges);
+        /* Numeric ranges are checked after the regex matched; see GlobTest */
+        if (automaton != null && ranges.isEmpty()) {
+            Assert.assertEquals("glob " + glob + " regex " + regex + " input " + input,
+                    pattern.matcher(input).matches(), automaton.matches(input));
+        }
+    }
+
+    @Test
+    public void commonGlobsCompiled() {
+        for (String glob : new String[] { "*", "*.java", "*.{java,xml}", "Makefile", "lib/**.js", "[a-c]?.md",
+                "file{1..3}.txt" }) {
+            final List<int[]> ranges = new ArrayList<>();
+            final StringBuilder regex = new StringBuilder();
+            Glob.convertGlobToRegEx(glob, ranges, regex);
+            Assert.assertNotNull(glob, GlobAutomaton.compile(regex.toString(), ranges));
+        }
+    }
+
+    private static String regex(String glob) {
+        final StringBuilder regex = new StringBuilder();
+        Glob.convertGlobToRegEx(glob, new ArrayList<int[]>(), regex);
+        return regex.toString();
+    }
+
+    @Test
+    public void largeAutomata() {
+        final StringBuilder words = new StringBuilder();
+        for (int i = 0; i < 24; i++) {
+            words.append(i == 0 ? "" : ",").append("word").append((char) ('a' + i)).append("xyz");
+        }
+        /* More than 128 and more than 64 states respectively */
+        final String largeGlob = "*{" + words + "}*.x";
+        final String smallGlob = "*{abcdefgh,ijklmnop,qrstuvwx,yzabcdef,ghijklmn,opqrstuv,wxyzabcd,efghijkl}*.x";
+        final GlobAutomaton large = GlobAutomaton.compile(regex(largeGlob), new ArrayList<int[]>());
+        final GlobAutomaton small = GlobAutomaton.compile(regex(smallGlob), new ArrayList<int[]>());
+        final Pattern largePattern = Pattern.compile(regex(largeGlob));
+        final Pattern smallPattern = Pattern.compile(regex(smallGlob));
+        final String[] inputs = { "a_wordkxyz_.x", "wordwxyz.x", "wordw.x", "qrstuvwx.x", "_efghijkl_.x",
+                "efghijk.x", "" };
+        for (int i = 0; i < 3; i++) {
+            for (String input : inputs) {
+                /* The automata share the scratch bit sets of the current thread */
+                Assert.assertEquals(input, largePattern.matcher(input).matches(), large.matches(input));
+                Assert.assertEquals(input, smallPattern.matcher(input).matches(), small.matches(input));
+            }
+        }
+        Assert.assertTrue(large.canMatchAfter("wordk"));
+        /* Must not see the bits left in the scratch by the larger automaton */
+        Assert.assertFalse(small.canMatchAfter("a/"));
+        Assert.assertTrue(small.canMatchAfter("a"));
+    }
+
+    @Test
+    public void matchSections() {
+        final EditorConfig.Builder builder = EditorConfig.builder();
+        for (String glob : GLOBS) {
+            builder.openSection().glob(new Glob(glob)).closeSection();
+        }
+        /* Sections that cannot be matched by the automata */
+        builder.openSection().closeSection();
+        builder.openSection().glob(new Glob("{1..3}.txt")).closeSection();
+        /* Sections found via the name and extension indices */
+        for (String glob : new String[] { "*.min.js", "{Makefile,Rakefile}", "*.", "/Makefile", "*.java", "*" }) {
+            builder.openSection().glob(new Glob(glob)).closeSection();
+        }
+        final EditorConfig editorConfig = builder.build();
+        final List<Section> sections = editorConfig.getSections();
+        for (String input : INPUTS) {
+            if (input.isEmpty()) {
+                continue;
+            }
+            final Ec4jPath path = Ec4jPath.Ec4jPaths.of(input);
+            final BitSet expected = new BitSet();
+            for (int i = 0; i < sections.size(); i++) {
+                if (sections.get(i).match(path)) {
+                    expected.set(i + 3);
+                }
+            }
+            final BitSet actual = new BitSet();
+            editorConfig.matchSections(path, actual, 3);
+            Assert.assertEquals(input, expected, actual);
+            Assert.assertEquals(input, expected.get(3, expected.length()),
+                    editorConfig.matchSections(path).get(0, expected.length()));
+        }
+    }
+
+    @Test
+    public void sameAsRegex() {
+        for (String glob : GLOBS) {
+            for (String input : INPUTS) {
+                assertSameAsRegex(glob, input);
+            }
+        }
+    }
+
+    @Test
+    public void sameAsRegexRandom() {
+        final Random random = new Random(42);
+        final String globChars = "ab.*?[]!^-{},/\\";
+        final String inputChars = "ab./-,{}\n";
+        for (int i = 0; i < 20000; i++) {
+            final StringBuilder glob = new StringBuilder();
+            for (int j = random.nextInt(8); j >= 0; j--) {
+                glob.append(globChars.charAt(random.nextInt(globChars.length())));
+            }
+            for (int k = 0; k < 10; k++) {
+                final StringBuilder input = new StringBuilder();
+                for (int j = random.nextInt(6); j > 0; j--) {
+                    input.append(inputChars.charAt(random.nextInt(inputChars.length())));
+                }
+                assertSameAsRegex(glob.toString(), input.toString());
+            }
+        }
+    }
+
+}
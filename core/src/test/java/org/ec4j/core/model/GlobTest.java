@@ -16,6 +16,15 @@
  */
 package org.ec4j.core.model;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.ec4j.core.EditorConfigLoader;
+import org.ec4j.core.Resource.Resources;
 import org.ec4j.core.model.Ec4jPath.Ec4jPaths;
 import org.junit.Assert;
 import org.junit.Test;
@@ -28,4 +37,197 @@ public class GlobTest {
         Assert.assertTrue(glob.match(Ec4jPaths.of("{aardvark..antelope}")));
     }
 
+    @Test
+    public void fastPaths() {
+        final String[] globs = { "*", "*.java", "*.", "{*.json,*.yml}", "Makefile", "/Makefile", "{Makefile,Rakefile}",
+                "dir/**", "/a/b/**", "x\\#y" };
+        final String[] paths = { "Makefile", "dir/Makefile", "Rakefile", "a.java", "dir/a.java", "a.javax", "a.",
+                "b.json", "dir/b.yml", "dir", "dir/a", "dir/a/b", "dir/a\nb", "a/b", "a/b/c", "x#y" };
+        for (String glob : globs) {
+            final Glob g = new Glob(glob);
+            String source = Glob.ESCAPED_COMMENT_SIGNS.matcher(glob).replaceAll("$1");
+            final boolean lastSegmentOnly = source.indexOf('/') < 0;
+            source = source.startsWith("/") ? source.substring(1) : source;
+            Assert.assertNotNull(glob, Glob.FastPath.of(source, lastSegmentOnly));
+            final StringBuilder regex = new StringBuilder();
+            Glob.convertGlobToRegEx(source, new ArrayList<int[]>(), regex);
+            final Pattern pattern = Pattern.compile(regex.toString());
+            for (String path : paths) {
+                final String input = lastSegmentOnly ? path.substring(path.lastIndexOf('/') + 1) : path;
+                Assert.assertEquals(glob + " " + path, pattern.matcher(input).matches(),
+                        g.match(Ec4jPaths.of(path)));
+            }
+        }
+    }
+
+    @Test
+    public void canMatchUnder() {
+        final Glob java = new Glob("src/**/*.java");
+        Assert.assertTrue(java.canMatchUnder(Ec4jPaths.of("src")));
+        Assert.assertTrue(java.canMatchUnder(Ec4jPaths.of("src/a/b")));
+        Assert.assertFalse(java.canMatchUnder(Ec4jPaths.of("docs")));
+        Assert.assertFalse(java.canMatchUnder(Ec4jPaths.of("srcs")));
+        Assert.assertTrue(java.canMatchUnder("/project/src", 9));
+        Assert.assertFalse(java.canMatchUnder("/project/docs", 9));
+
+        Assert.assertTrue(new Glob("*.java").canMatchUnder(Ec4jPaths.of("docs/a")));
+        Assert.assertFalse(new Glob("/Makefile").canMatchUnder(Ec4jPaths.of("sub")));
+        Assert.assertTrue(new Glob("/Makefile").canMatchUnder("/project", 8));
+        Assert.assertTrue(new Glob("Makefile").canMatchUnder(Ec4jPaths.of("sub")));
+        Assert.assertTrue(Glob.FastPath.of("Makefile", true).canMatchAfter("sub/"));
+        Assert.assertFalse(Glob.FastPath.of("Makefile", false).canMatchAfter("sub/"));
+
+        final Glob prefix = new Glob("/lib/a/**");
+        Assert.assertTrue(prefix.canMatchUnder(Ec4jPaths.of("lib")));
+        Assert.assertTrue(prefix.canMatchUnder(Ec4jPaths.of("lib/a/b")));
+        Assert.assertFalse(prefix.canMatchUnder(Ec4jPaths.of("lib/b")));
+
+        final Glob numbers = new Glob("/v{1..12}/*.txt");
+        Assert.assertTrue(numbers.canMatchUnder(Ec4jPaths.of("v12")));
+        Assert.assertFalse(numbers.canMatchUnder(Ec4jPaths.of("v13")));
+        Assert.assertFalse(numbers.canMatchUnder(Ec4jPaths.of("v12/a")));
+
+        Assert.assertFalse(new Glob("a[").canMatchUnder(Ec4jPaths.of("a")));
+    }
+
+    @Test
+    public void compareNumber() {
+        Assert.assertEquals(0, Glob.compareNumber("a123", 1, 4, 123));
+        Assert.assertTrue(Glob.compareNumber("a123", 1, 4, 124) < 0);
+        Assert.assertTrue(Glob.compareNumber("a123", 1, 4, 23) > 0);
+        Assert.assertTrue(Glob.compareNumber("a123", 1, 4, 1000) < 0);
+        Assert.assertTrue(Glob.compareNumber("123", 0, 3, -5) > 0);
+        Assert.assertTrue(Glob.compareNumber("99999999999", 0, 11, Integer.MAX_VALUE) > 0);
+        Assert.assertEquals(0, Glob.compareNumber("2147483647", 0, 10, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void numericRanges() {
+        final int[][] ranges = { { 1, 1 }, { 0, 5 }, { 3, 120 }, { -3, 3 }, { 5, 3 }, { 95, 1005 }, { 10, 99 },
+                { 100, 100 }, { 1, Integer.MAX_VALUE }, { 2000000000, Integer.MAX_VALUE } };
+        final Random random = new Random(42);
+        final List<String> numbers = new ArrayList<>(Arrays.asList("0", "00", "01", "007", "-1", "-0", "9", "99",
+                "100", "1005", "1006", "2147483647", "2147483648", "99999999999", "1a", ""));
+        for (int i = 0; i < 200; i++) {
+            numbers.add(String.valueOf(random.nextInt(2000)));
+            numbers.add(String.valueOf(random.nextInt(Integer.MAX_VALUE)));
+        }
+        for (int[] range : ranges) {
+            final Glob glob = new Glob("f{" + range[0] + ".." + range[1] + "}.txt");
+            for (String number : numbers) {
+                final boolean expected = number.matches("[1-9][0-9]*") && number.length() <= 10
+                        && Long.parseLong(number) >= range[0] && Long.parseLong(number) <= range[1];
+                Assert.assertEquals(glob + " " + number, expected, glob.match(Ec4jPaths.of("f" + number + ".txt")));
+            }
+        }
+        final Glob twoRanges = new Glob("{1..5}{10..20}");
+        Assert.assertTrue(twoRanges.match(Ec4jPaths.of("315")));
+        Assert.assertTrue(twoRanges.match(Ec4jPaths.of("110")));
+        Assert.assertFalse(twoRanges.match(Ec4jPaths.of("105")));
+        Assert.assertFalse(twoRanges.match(Ec4jPaths.of("610")));
+    }
+
+    @Test
+    public void matchFromStart() {
+        final String[] globs = { "*", "*.java", "{*.json,*.yml}", "Makefile", "{Makefile,Rakefile}", "dir/**",
+                "a/*", "**/b", "*.{java,xml}", "f{1..5}", "b", "[ab]" };
+        final String[] paths = { "/root/dir/Makefile", "/root/Makefile", "/root/dir/a.java", "/root/a/b",
+                "/root/dir/a/b", "/root/f3", "/root/dir/b.yml", "/root/a" };
+        for (String glob : globs) {
+            final Glob g = new Glob(glob);
+            for (String path : paths) {
+                for (int start = 1; start < path.length(); start++) {
+                    if (path.charAt(start - 1) == '/') {
+                        Assert.assertEquals(glob + " " + path + " " + start,
+                                g.match(Ec4jPaths.of(path.substring(start))), g.match(path, start));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void of() {
+        final Glob glob = Glob.of("*.{js,ts}");
+        Assert.assertSame(glob, Glob.of("*.{js,ts}"));
+        Assert.assertEquals(new Glob("*.{js,ts}"), glob);
+        Assert.assertNotSame(glob, Glob.of("*.{js,ts,tsx}"));
+        Assert.assertTrue(glob.match(Ec4jPaths.of("dir/a.ts")));
+    }
+
+    @Test
+    public void invalid() {
+        for (String glob : new String[] { "[z-a].txt", "a[" }) {
+            final Glob g = new Glob(glob);
+            Assert.assertFalse(glob, g.isValid());
+            Assert.assertNotNull(glob, g.getError());
+            Assert.assertFalse(glob, g.match(Ec4jPaths.of("a")));
+        }
+        Assert.assertNull(new Glob("[a-z].txt").getError());
+    }
+
+    @Test
+    public void certainlyValid() {
+        final String alphabet = "a1.,{}[]!*/";
+        final List<String> globs = new ArrayList<>(Arrays.asList(""));
+        for (int length = 0; length < 5; length++) {
+            final List<String> longer = new ArrayList<>();
+            for (String glob : globs) {
+                if (glob.length() == length) {
+                    for (int i = 0; i < alphabet.length(); i++) {
+                        longer.add(glob + alphabet.charAt(i));
+                    }
+                }
+            }
+            globs.addAll(longer);
+        }
+        globs.addAll(Arrays.asList("*.{1..3}", "{a,{b,c}}/[!ab]", "[Mm]akefile", "a{b{c}d}e,f}"));
+        for (String glob : globs) {
+            if (Glob.isCertainlyValid(glob)) {
+                final StringBuilder regex = new StringBuilder();
+                Glob.convertGlobToRegEx(glob, new ArrayList<int[]>(), regex);
+                Pattern.compile(regex.toString());
+            }
+        }
+        for (String glob : new String[] { "*.{1..3}", "{a,{b,c}}/[!ab]", "[Mm]akefile", "src/**/*.java" }) {
+            Assert.assertTrue(glob, Glob.isCertainlyValid(glob));
+        }
+        for (String glob : new String[] { "[z-a].txt", "a[", "[]", "[!]", "}{", "{a", "a\\[" }) {
+            Assert.assertFalse(glob, Glob.isCertainlyValid(glob));
+        }
+    }
+
+    @Test
+    public void loadingDoesNotCompile() throws IOException {
+        /* Glob.of() shares the instances, so use sources no other test matches against */
+        final String[] globs = { "loading/**/*.java", "*.{loading1,loading2}", "{loading_a,loading_b}/*.txt",
+                "[Ll]oading", "loading.{1..3}", "*.loading" };
+        final StringBuilder content = new StringBuilder();
+        for (String glob : globs) {
+            content.append('[').append(glob).append("]\nindent_size = 2\n");
+        }
+        final EditorConfig editorConfig = EditorConfigLoader.default_()
+                .load(Resources.ofString("/.editorconfig", content.toString()));
+        Assert.assertEquals(globs.length, editorConfig.getSections().size());
+        for (Section section : editorConfig.getSections()) {
+            final Glob glob = section.getGlob();
+            Assert.assertTrue(glob.getSource(), glob.isValid());
+            Assert.assertFalse(glob.getSource(), glob.isCompiled());
+        }
+        /* The fast paths do not need to be compiled to prune directories either */
+        final Glob extension = editorConfig.getSections().get(globs.length - 1).getGlob();
+        Assert.assertNotNull(extension.getFastPath());
+        Assert.assertTrue(extension.canMatchUnder(Ec4jPaths.of("dir")));
+        Assert.assertFalse(extension.isCompiled());
+    }
+
+    @Test
+    public void noFastPaths() {
+        for (String glob : new String[] { "*.{java,xml}", "{a,}", "{*.a,b}", "a*", "**", "{1..3}", "a/*", "/*",
+                "dir//**" }) {
+            final String source = glob.startsWith("/") ? glob.substring(1) : glob;
+            Assert.assertNull(glob, Glob.FastPath.of(source, glob.indexOf('/') < 0 && glob.indexOf("**") < 0));
+        }
+    }
+
 }
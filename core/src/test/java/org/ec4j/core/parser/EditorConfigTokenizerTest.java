@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2017 Angelo Zerr and other contributors as
+ * indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ec4j.core.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ec4j.core.Resource.Resources;
+import org.ec4j.core.parser.EditorConfigTokenizer.TokenKind;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EditorConfigTokenizerTest {
+
+    private static final String INPUT = "# comment\r\n" + //
+            "root = true\r\n" + //
+            "\r\n" + //
+            "  [*.{java,xml}] ; inline comment\n" + //
+            "Indent_Style=space\n" + //
+            "key : value # inline comment\n" + //
+            "empty =\n" + //
+            "[]\n" + //
+            "[n\u00e4me]\n" + //
+            "  charset = utf-8  \n" + //
+            "missing value";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    /**
+     * Collects the strings passed to the {@link EditorConfigHandler} in the same format as
+     * {@link #tokens(EditorConfigTokenizer)}.
+     */
+    private static class CollectingHandler implements EditorConfigHandler {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void blankLine(ParseContext context) {
+        }
+
+        @Override
+        public void endComment(ParseContext context, String comment) {
+            events.add(TokenKind.COMMENT + " " + comment);
+        }
+
+        @Override
+        public void endGlob(ParseContext context, String glob) {
+            events.add(TokenKind.GLOB + " " + glob);
+        }
+
+        @Override
+        public void endPropertyName(ParseContext context, String name) {
+            events.add(TokenKind.PROPERTY_NAME + " " + name);
+        }
+
+        @Override
+        public void endPropertyValue(ParseContext context, String value) {
+            events.add(TokenKind.PROPERTY_VALUE + " " + value);
+        }
+
+        @Override
+        public void endDocument(ParseContext context) {
+        }
+
+        @Override
+        public void endProperty(ParseContext context) {
+        }
+
+        @Override
+        public void endSection(ParseContext context) {
+        }
+
+        @Override
+        public void startComment(ParseContext context) {
+        }
+
+        @Override
+        public void startDocument(ParseContext context) {
+        }
+
+        @Override
+        public void startGlob(ParseContext context) {
+        }
+
+        @Override
+        public void startProperty(ParseContext context) {
+        }
+
+        @Override
+        public void startPropertyName(ParseContext context) {
+        }
+
+        @Override
+        public void startPropertyValue(ParseContext context) {
+        }
+
+        @Override
+        public void startSection(ParseContext context) {
+        }
+    }
+
+    private static List<String> tokens(EditorConfigTokenizer tokenizer) {
+        final List<String> result = new ArrayList<>();
+        TokenKind kind;
+        while ((kind = tokenizer.next()) != null) {
+            final String text = tokenizer.getText();
+            /* The parser lowercases the names and does not send any event for [] */
+            if (kind == TokenKind.PROPERTY_NAME) {
+                result.add(kind + " " + text.toLowerCase());
+            } else if (kind != TokenKind.GLOB || !text.isEmpty()) {
+                result.add(kind + " " + text);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void sameAsParser() throws IOException {
+        final CollectingHandler handler = new CollectingHandler();
+        EditorConfigParser.default_().parse(Resources.ofString("/.editorconfig", INPUT), handler,
+                ErrorHandler.IGNORING);
+        Assert.assertEquals(handler.events, tokens(EditorConfigTokenizer.of(INPUT)));
+        Assert.assertEquals(handler.events,
+                tokens(EditorConfigTokenizer.ofUtf8(ByteBuffer.wrap(INPUT.getBytes(StandardCharsets.UTF_8)))));
+
+        final CollectingHandler bytesHandler = new CollectingHandler();
+        final Path file = tmp.newFile(".editorconfig").toPath();
+        Files.write(file, INPUT.getBytes(StandardCharsets.UTF_8));
+        EditorConfigParser.builder().parseUtf8Bytes(true).build()
+                .parse(Resources.ofPath(file, StandardCharsets.UTF_8), bytesHandler, ErrorHandler.IGNORING);
+        Assert.assertEquals(handler.events, bytesHandler.events);
+    }
+
+    @Test
+    public void offsets() {
+        final EditorConfigTokenizer tokenizer = EditorConfigTokenizer.of(INPUT);
+        Assert.assertEquals(TokenKind.COMMENT, tokenizer.next());
+        Assert.assertEquals(0, tokenizer.getStart());
+        Assert.assertEquals(9, tokenizer.getEnd());
+        Assert.assertEquals(TokenKind.PROPERTY_NAME, tokenizer.next());
+        Assert.assertEquals(11, tokenizer.getStart());
+        Assert.assertEquals(15, tokenizer.getEnd());
+        Assert.assertEquals(TokenKind.PROPERTY_VALUE, tokenizer.next());
+        Assert.assertEquals(18, tokenizer.getStart());
+        Assert.assertEquals(22, tokenizer.getEnd());
+        Assert.assertEquals(TokenKind.GLOB, tokenizer.next());
+        Assert.assertEquals("*.{java,xml}", INPUT.substring(tokenizer.getStart(), tokenizer.getEnd()));
+    }
+
+    @Test
+    public void pickProperties() {
+        final ByteBuffer bytes = ByteBuffer.wrap(INPUT.getBytes(StandardCharsets.UTF_8));
+        final EditorConfigTokenizer tokenizer = EditorConfigTokenizer.ofUtf8(bytes);
+        String root = null;
+        String charset = null;
+        TokenKind kind;
+        while ((kind = tokenizer.next()) != null) {
+            if (kind == TokenKind.PROPERTY_NAME) {
+                if (tokenizer.textEqualsIgnoreCase("ROOT")) {
+                    tokenizer.next();
+                    root = tokenizer.getText();
+                } else if (tokenizer.textEqualsIgnoreCase("charset")) {
+                    tokenizer.next();
+                    charset = tokenizer.getText();
+                }
+            }
+        }
+        Assert.assertEquals("true", root);
+        Assert.assertEquals("utf-8  ", charset);
+        Assert.assertEquals(0, bytes.position());
+        Assert.assertNull(tokenizer.getKind());
+    }
+
+}